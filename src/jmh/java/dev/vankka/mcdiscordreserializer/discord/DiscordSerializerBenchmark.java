@@ -0,0 +1,104 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.discord;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of serializing typical plugin chat output to Discord markdown, run with {@code ./gradlew jmh}.
+ * Compares walking trees of text components directly against flattening them with the {@link net.kyori.adventure.text.flattener.ComponentFlattener},
+ * the fast path for a single text component without formatting against the full path and a compiled {@link DiscordTemplate}
+ * of the chat format against serializing the whole line, and serializing the line to an {@code ansi} code block.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiscordSerializerBenchmark {
+
+    private static final Component NAME = Component.text("Vankka");
+    private static final Component CONTENT = Component.text()
+            .content("Welcome to the server, ")
+            .append(Component.text("read the rules", NamedTextColor.AQUA).decorate(TextDecoration.UNDERLINED))
+            .append(Component.text(" and have fun! "))
+            .append(Component.text("Events start at 8pm", NamedTextColor.YELLOW).decorate(TextDecoration.ITALIC))
+            .build();
+    private static final Component MESSAGE = chatLine(NAME, CONTENT);
+
+    private static final Component PLAIN_MESSAGE = Component.text("Vankka joined the game, welcome! (12 players online)", NamedTextColor.YELLOW);
+
+    private final DiscordSerializer serializer = new DiscordSerializer();
+    private final DiscordSerializerOptions walkerOptions = DiscordSerializerOptions.defaults();
+    // A different flattener instance with the same mappers always goes through the flattener
+    private final DiscordSerializerOptions flattenerOptions =
+            walkerOptions.withFlattener(walkerOptions.getFlattener().toBuilder().build());
+    private final DiscordTemplate template = DiscordTemplate.compile(
+            chatLine(Component.text("%name%"), Component.text("%message%")),
+            walkerOptions,
+            "%name%", "%message%"
+    );
+
+    private static Component chatLine(Component name, Component content) {
+        return Component.text()
+                .append(Component.text("[", NamedTextColor.DARK_GRAY))
+                .append(Component.text("Admin", NamedTextColor.RED).decorate(TextDecoration.BOLD))
+                .append(Component.text("] ", NamedTextColor.DARK_GRAY))
+                .append(name.colorIfAbsent(NamedTextColor.GOLD))
+                .append(Component.text(": ", NamedTextColor.GRAY))
+                .append(content)
+                .build();
+    }
+
+    @Benchmark
+    public String walker() {
+        return serializer.serialize(MESSAGE, walkerOptions);
+    }
+
+    @Benchmark
+    public String flattener() {
+        return serializer.serialize(MESSAGE, flattenerOptions);
+    }
+
+    @Benchmark
+    public String plainText() {
+        return serializer.serialize(PLAIN_MESSAGE, walkerOptions);
+    }
+
+    @Benchmark
+    public String plainTextFlattener() {
+        return serializer.serialize(PLAIN_MESSAGE, flattenerOptions);
+    }
+
+    @Benchmark
+    public String template() {
+        return template.serialize(NAME, CONTENT);
+    }
+
+    @Benchmark
+    public String ansi() {
+        return serializer.serializeAnsi(MESSAGE, walkerOptions);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.discord;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of serializing a leaderboard where one line changes between versions, run with {@code ./gradlew jmh}.
+ * Compares serializing every version fully against a {@link DiscordSerializerSession}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiscordSerializerSessionBenchmark {
+
+    private static final int LINES = 20;
+
+    private final DiscordSerializer serializer = new DiscordSerializer();
+    private final DiscordSerializerSession session = serializer.createSession();
+    private final List<Component> lines = new ArrayList<>();
+    private int version;
+
+    @Setup
+    public void setup() {
+        for (int line = 0; line < LINES; line++) {
+            lines.add(line(line, 0));
+        }
+    }
+
+    private static Component line(int line, int score) {
+        return Component.text()
+                .content("\n" + (line + 1) + ". ")
+                .append(Component.text("Player" + line, NamedTextColor.GOLD).decorate(TextDecoration.BOLD))
+                .append(Component.text(" - ", NamedTextColor.DARK_GRAY))
+                .append(Component.text(score + " kills", NamedTextColor.GRAY).decorate(TextDecoration.ITALIC))
+                .build();
+    }
+
+    private Component next() {
+        int line = version++ % LINES;
+        lines.set(line, line(line, version));
+        return Component.text("Leaderboard", NamedTextColor.YELLOW).decorate(TextDecoration.UNDERLINED).children(lines);
+    }
+
+    @Benchmark
+    public String full() {
+        return serializer.serialize(next());
+    }
+
+    @Benchmark
+    public String session() {
+        return session.serialize(next());
+    }
+}
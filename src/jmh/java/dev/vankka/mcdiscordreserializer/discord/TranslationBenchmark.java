@@ -0,0 +1,117 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.discord;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.MessageFormat;
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Throughput of serializing a stream of vanilla death messages to Discord markdown, run with {@code ./gradlew jmh}.
+ * Compares looking up and compiling the translation for every {@link TranslatableComponent} against the {@link TranslationCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TranslationBenchmark {
+
+    private static final ResourceBundle BUNDLE = new ListResourceBundle() {
+        @Override
+        protected Object[][] getContents() {
+            return new Object[][] {
+                    {"death.attack.mob", "{0} was slain by {1}"},
+                    {"death.attack.arrow", "{0} was shot by {1}"},
+                    {"death.attack.fall", "{0} hit the ground too hard"},
+                    {"death.attack.lava", "{0} tried to swim in lava"},
+                    {"death.attack.drown", "{0} drowned"},
+                    {"death.attack.explosion.player", "{0} was blown up by {1}"},
+                    {"death.fell.accident.ladder", "{0} fell off a ladder"},
+                    {"entity.minecraft.zombie", "Zombie"},
+                    {"entity.minecraft.skeleton", "Skeleton"},
+                    {"entity.minecraft.creeper", "Creeper"}
+            };
+        }
+    };
+
+    private static final Component[] MESSAGES = {
+            death("death.attack.mob", "Vankka", "entity.minecraft.zombie"),
+            death("death.attack.arrow", "Notch", "entity.minecraft.skeleton"),
+            death("death.attack.fall", "jeb_", null),
+            death("death.attack.lava", "Dinnerbone", null),
+            death("death.attack.explosion.player", "Vankka", "entity.minecraft.creeper"),
+            death("death.attack.drown", "Notch", null),
+            death("death.fell.accident.ladder", "jeb_", null),
+            death("death.attack.mob", "Dinnerbone", "entity.minecraft.zombie")
+    };
+
+    private final DiscordSerializer serializer = new DiscordSerializer();
+    private final DiscordSerializerOptions uncachedOptions = withTranslations(new Function<TranslatableComponent, String>() {
+        @Override
+        public String apply(TranslatableComponent component) {
+            Object[] arguments = new Object[component.args().size()];
+            for (int i = 0; i < arguments.length; i++) {
+                StringBuilder builder = new StringBuilder();
+                uncachedOptions.getFlattener().flatten(component.args().get(i), builder::append);
+                arguments[i] = builder.toString();
+            }
+            return new MessageFormat(BUNDLE.getString(component.key()), Locale.US).format(arguments);
+        }
+    });
+    private final DiscordSerializerOptions cachedOptions = withTranslations(
+            new TranslationCache((key, locale) -> new MessageFormat(BUNDLE.getString(key), locale), 256).provider(Locale.US)
+    );
+    private int index;
+
+    private static Component death(String key, String player, String killer) {
+        Component name = Component.text(player, NamedTextColor.YELLOW);
+        return killer != null
+               ? Component.translatable(key, name, Component.translatable(killer))
+               : Component.translatable(key, name);
+    }
+
+    private static DiscordSerializerOptions withTranslations(Function<TranslatableComponent, String> provider) {
+        DiscordSerializerOptions options = DiscordSerializerOptions.defaults();
+        return options.withFlattener(options.getFlattener().toBuilder().mapper(TranslatableComponent.class, provider).build());
+    }
+
+    private Component next() {
+        return MESSAGES[index++ & (MESSAGES.length - 1)];
+    }
+
+    @Benchmark
+    public String uncached() {
+        return serializer.serialize(next(), uncachedOptions);
+    }
+
+    @Benchmark
+    public String cached() {
+        return serializer.serialize(next(), cachedOptions);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import dev.vankka.mcdiscordreserializer.rules.CompactAst;
+import dev.vankka.simpleast.core.node.Node;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory benchmarks for {@link CompactAst} against the node tree, run with {@code ./gradlew jmh}.
+ * The retained size of both forms is printed once per fork, allocations per operation are reported
+ * by the gc profiler as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompactAstBenchmark {
+
+    /**
+     * A formatting heavy message, mostly made of small style nodes.
+     */
+    private static final String FORMATTING_HEAVY;
+
+    static {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            builder.append("**bold ").append(i).append("** *italics* __underline__ ~~strike~~ `code` ||spoiler|| ")
+                    .append("<@12345> <#67890> <:emote:123> https://example.com\n");
+        }
+        FORMATTING_HEAVY = builder.toString();
+    }
+
+    private final MinecraftSerializer serializer = new MinecraftSerializer();
+    private CompactAst compactAst;
+
+    @Setup
+    public void setup() {
+        compactAst = serializer.parseCompact(FORMATTING_HEAVY);
+        List<Node<Object>> nodes = compactAst.toNodes();
+
+        System.out.println();
+        System.out.println("Retained node tree: " + GraphLayout.parseInstance(nodes).totalSize() + " bytes");
+        System.out.println("Retained compact AST: " + GraphLayout.parseInstance(compactAst).totalSize() + " bytes");
+    }
+
+    @Benchmark
+    public Component parseAndSerialize() {
+        return serializer.serialize(FORMATTING_HEAVY);
+    }
+
+    @Benchmark
+    public CompactAst parseCompact() {
+        return serializer.parseCompact(FORMATTING_HEAVY);
+    }
+
+    @Benchmark
+    public Component serializeCompact() {
+        return serializer.serialize(compactAst, serializer.getDefaultOptions());
+    }
+
+    @Benchmark
+    public List<Node<Object>> compactToNodes() {
+        return compactAst.toNodes();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of output compaction, run with {@code ./gradlew jmh}.
+ * The JSON size of the message with and without compaction is printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComponentCompactorBenchmark {
+
+    private static final String MESSAGE;
+
+    static {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            builder.append("**Hey** <@12345>, check <#67890> ||spoiler *").append(i).append("*|| ")
+                    .append("with `code`, ~~strike __underline **bold**__~~\n> quoted **bold**\n");
+        }
+        MESSAGE = builder.toString();
+    }
+
+    private final MinecraftSerializer serializer = new MinecraftSerializer();
+    private final MinecraftSerializerOptions<Component> compacting =
+            serializer.getDefaultOptions().withOutputCompactionEnabled(true);
+    private final GsonComponentSerializer gson = GsonComponentSerializer.gson();
+
+    @Setup
+    public void setup() {
+        System.out.println();
+        System.out.println("JSON size: " + serializeJson().length() + " characters");
+        System.out.println("Compacted JSON size: " + serializeCompactedJson().length() + " characters");
+    }
+
+    @Benchmark
+    public String serializeJson() {
+        return gson.serialize(serializer.serialize(MESSAGE));
+    }
+
+    @Benchmark
+    public String serializeCompactedJson() {
+        return gson.serialize(serializer.serialize(MESSAGE, compacting));
+    }
+}
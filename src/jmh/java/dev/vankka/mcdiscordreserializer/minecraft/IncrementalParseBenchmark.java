@@ -0,0 +1,70 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of parsing an edit of a long Discord message with code blocks and quotes, run with {@code ./gradlew jmh}.
+ * Compares parsing the edited message entirely against parsing it from the previous {@link ParsedMessage}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncrementalParseBenchmark {
+
+    private static final String MESSAGE;
+    private static final String EDITED_MESSAGE;
+
+    static {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            builder.append("**Step ").append(i).append("** run this with `sudo` and *check* the output at https://example.com\n")
+                    .append("```bash\n./gradlew build --info ").append(i).append("\n```\n")
+                    .append("> __Note__: ||it takes a while|| <@12345>\n");
+        }
+        MESSAGE = builder.toString();
+        EDITED_MESSAGE = MESSAGE.replace("--info 4", "--info --stacktrace 4");
+    }
+
+    private final MinecraftSerializer serializer = new MinecraftSerializer(
+            MinecraftSerializerOptions.defaults().withBlockParsingEnabled(true)
+    );
+    private ParsedMessage previous;
+
+    @Setup
+    public void setup() {
+        previous = serializer.parse(MESSAGE);
+    }
+
+    @Benchmark
+    public ParsedMessage full() {
+        return serializer.parse(EDITED_MESSAGE);
+    }
+
+    @Benchmark
+    public ParsedMessage incremental() {
+        return serializer.parse(previous, EDITED_MESSAGE);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of serializing Discord messages to legacy formatted text, run with {@code ./gradlew jmh}.
+ * Compares rendering a {@link net.kyori.adventure.text.Component} and serializing it with the
+ * {@link LegacyComponentSerializer} against writing the legacy text directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LegacyOutputBenchmark {
+
+    private static final String MESSAGE;
+
+    static {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            builder.append("**Hey** <@12345>, check <#67890> ||spoiler ").append(i).append("|| ")
+                    .append("with `code`, *italics* and __underline **bold**__ https://example.com\n");
+        }
+        MESSAGE = builder.toString();
+    }
+
+    private final MinecraftSerializer serializer = new MinecraftSerializer();
+    private final LegacyComponentSerializer legacySerializer = LegacyComponentSerializer.legacySection();
+    private final MinecraftSerializerOptions<MinecraftLegacyWriter> legacyOptions =
+            serializer.getDefaultOptions().withRenderers(Collections.emptyList());
+    private final StringBuilder builder = new StringBuilder();
+    private ParsedMessage parsedMessage;
+
+    @Setup
+    public void setup() {
+        parsedMessage = serializer.parse(MESSAGE);
+    }
+
+    @Benchmark
+    public String twoStep() {
+        return legacySerializer.serialize(serializer.serialize(MESSAGE));
+    }
+
+    @Benchmark
+    public String direct() {
+        return serializer.serializeLegacy(MESSAGE);
+    }
+
+    @Benchmark
+    public String renderTwoStep() {
+        return legacySerializer.serialize(serializer.serialize(parsedMessage));
+    }
+
+    @Benchmark
+    public String renderDirect() throws IOException {
+        builder.setLength(0);
+        serializer.serializeLegacy(parsedMessage, legacyOptions, builder);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link MinecraftSerializer}, run with {@code ./gradlew jmh}.
+ * Allocations per operation are reported by the gc profiler as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MinecraftSerializerBenchmark {
+
+    /**
+     * Every special character is split into its own text node by the text rule.
+     */
+    private static final String PUNCTUATION_HEAVY;
+
+    static {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            builder.append("Hey!!! What's up??? (just testing) -- [ok] #").append(i)
+                    .append(" @here; x=y+z/2 & 100% \"done\"... {maybe} $5, right?!\n");
+        }
+        PUNCTUATION_HEAVY = builder.toString();
+    }
+
+    private final MinecraftSerializer serializer = new MinecraftSerializer();
+
+    @Benchmark
+    public Component punctuationHeavy() {
+        return serializer.serialize(PUNCTUATION_HEAVY);
+    }
+}
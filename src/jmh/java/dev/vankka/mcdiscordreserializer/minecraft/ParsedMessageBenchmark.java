@@ -0,0 +1,90 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftRenderer;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for serializing one Discord message for several audiences, run with {@code ./gradlew jmh}.
+ * Compares parsing the message for every audience against parsing it once into a {@link ParsedMessage}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsedMessageBenchmark {
+
+    private static final String MESSAGE;
+
+    static {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            builder.append("**Hey** <@12345>, check <#67890> ||spoiler ").append(i).append("|| ")
+                    .append("with `code` and *italics* https://example.com\n");
+        }
+        MESSAGE = builder.toString();
+    }
+
+    /**
+     * The amount of audiences to serialize the message for.
+     */
+    @Param({"1", "4", "16"})
+    public int audiences;
+
+    private final MinecraftSerializer serializer = new MinecraftSerializer();
+    private MinecraftSerializerOptions<Component>[] options;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        options = new MinecraftSerializerOptions[audiences];
+        for (int i = 0; i < audiences; i++) {
+            String audience = "audience" + i;
+            options[i] = serializer.getDefaultOptions().addRenderer(new DefaultMinecraftRenderer() {
+                @Override
+                public @NotNull Component appendUserMention(@NotNull Component component, @NotNull String id) {
+                    return component.append(Component.text("@" + audience + ":" + id));
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public void parsePerAudience(Blackhole blackhole) {
+        for (MinecraftSerializerOptions<Component> audienceOptions : options) {
+            blackhole.consume(serializer.serialize(MESSAGE, audienceOptions));
+        }
+    }
+
+    @Benchmark
+    public void parseOnce(Blackhole blackhole) {
+        ParsedMessage message = serializer.parse(MESSAGE);
+        for (MinecraftSerializerOptions<Component> audienceOptions : options) {
+            blackhole.consume(serializer.serialize(message, audienceOptions));
+        }
+    }
+}
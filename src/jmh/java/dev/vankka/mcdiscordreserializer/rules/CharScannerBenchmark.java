@@ -0,0 +1,94 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.rules;
+
+import dev.vankka.mcdiscordreserializer.discord.DiscordSerializer;
+import dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializer;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scanning a long pasted message (a 4000 character Nitro message) for special characters, run with {@code ./gradlew jmh}.
+ * Compares the {@link CharScanner} against {@link String#indexOf(int)} for every character, and both serializers
+ * on the same message. The message has none of the characters, so every scan reads the entire message.
+ * {@link #escape()} escapes a message with a markdown character every few words.
+ * <p>
+ * {@code ./gradlew jmh} forks the benchmarks on Java 17 with {@code --add-modules jdk.incubator.vector},
+ * so the vectorized scan from the multi-release benchmark jar is used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CharScannerBenchmark {
+
+    private static final String PASTED_MESSAGE;
+
+    static {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 4000) {
+            builder.append("Pasting what the console said, the world failed to save again after 1234 ticks so it rolled back. ");
+        }
+        PASTED_MESSAGE = builder.toString();
+    }
+
+    private static final String MARKDOWN_MESSAGE = PASTED_MESSAGE.replace("save", "*save*").replace("ticks", "_ticks_");
+
+    private static final Component PASTED_COMPONENT = Component.text(PASTED_MESSAGE);
+
+    private final DiscordSerializer discordSerializer = new DiscordSerializer();
+    private final MinecraftSerializer minecraftSerializer = new MinecraftSerializer();
+
+    @Benchmark
+    public int scanner() {
+        return CharScanner.MARKDOWN_TRIGGERS.indexOf(PASTED_MESSAGE);
+    }
+
+    @Benchmark
+    public int indexOfEach() {
+        String characters = CharScanner.MARKDOWN_TRIGGERS.getCharacters();
+        int first = -1;
+        for (int index = 0; index < characters.length(); index++) {
+            int found = PASTED_MESSAGE.indexOf(characters.charAt(index));
+            if (found != -1 && (first == -1 || found < first)) {
+                first = found;
+            }
+        }
+        return first;
+    }
+
+    @Benchmark
+    public String escape() {
+        return CharScanner.MARKDOWN_ESCAPES.escape(MARKDOWN_MESSAGE, '\\');
+    }
+
+    @Benchmark
+    public String discordEscape() {
+        return discordSerializer.serialize(PASTED_COMPONENT);
+    }
+
+    @Benchmark
+    public Component minecraftParse() {
+        return minecraftSerializer.serialize(PASTED_MESSAGE);
+    }
+}
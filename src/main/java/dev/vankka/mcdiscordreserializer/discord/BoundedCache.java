@@ -0,0 +1,99 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.discord;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A thread safe cache which keeps the most recently used values up to the maximum size,
+ * used for flattened hovers and translation formats.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final boolean identityKeys;
+    private final Map<Object, V> values;
+
+    BoundedCache(int maxSize) {
+        this(maxSize, false);
+    }
+
+    /**
+     * @param identityKeys if keys are compared by identity instead of {@code equals}, for keys like {@code Component}s
+     *                     that are expensive to hash and compare as a whole
+     */
+    BoundedCache(int maxSize, boolean identityKeys) {
+        this.maxSize = maxSize;
+        this.identityKeys = identityKeys;
+        this.values = new LinkedHashMap<Object, V>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, V> eldest) {
+                return size() > BoundedCache.this.maxSize;
+            }
+        };
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the value for the key, computing it if it isn't cached. Computing happens outside the lock,
+     * the function must not return {@code null}.
+     */
+    V get(K key, Function<K, V> compute) {
+        Object mapKey = identityKeys ? new IdentityKey(key) : key;
+        synchronized (values) {
+            V value = values.get(mapKey);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        V value = compute.apply(key);
+        synchronized (values) {
+            values.put(mapKey, value);
+        }
+        return value;
+    }
+
+    private static final class IdentityKey {
+
+        private final Object key;
+
+        private IdentityKey(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IdentityKey && ((IdentityKey) o).key == key;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(key);
+        }
+    }
+}
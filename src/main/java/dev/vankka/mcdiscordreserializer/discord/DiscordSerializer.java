@@ -18,12 +18,16 @@
 
 package dev.vankka.mcdiscordreserializer.discord;
 
+import dev.vankka.mcdiscordreserializer.rules.CharScanner;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.flattener.ComponentFlattener;
 import net.kyori.adventure.text.flattener.FlattenerListener;
+import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.serializer.ComponentEncoder;
 import org.jetbrains.annotations.NotNull;
@@ -43,6 +47,35 @@ import java.util.regex.Pattern;
 public class DiscordSerializer implements ComponentEncoder<Component, String> {
 
     private static final Pattern LINK_PATTERN = Pattern.compile("(https?://.*\\.[^ ]*)$");
+    static final char SEPARATOR = '\u200B'; // zero width space
+
+    private static final String ANSI_BLOCK_START = "```ansi\n";
+    private static final String ANSI_BLOCK_END = "\n```";
+    private static final int ANSI_RESET = 0;
+    private static final int ANSI_BOLD = 1;
+    private static final int ANSI_UNDERLINE = 4;
+    private static final int ANSI_NO_COLOR = -1;
+    // The foreground colors Discord shows: gray, red, green, yellow, blue, pink, cyan and white
+    private static final Map<NamedTextColor, Integer> ANSI_COLORS = new HashMap<>();
+
+    static {
+        ANSI_COLORS.put(NamedTextColor.BLACK, 30);
+        ANSI_COLORS.put(NamedTextColor.DARK_GRAY, 30);
+        ANSI_COLORS.put(NamedTextColor.GRAY, 30);
+        ANSI_COLORS.put(NamedTextColor.DARK_RED, 31);
+        ANSI_COLORS.put(NamedTextColor.RED, 31);
+        ANSI_COLORS.put(NamedTextColor.DARK_GREEN, 32);
+        ANSI_COLORS.put(NamedTextColor.GREEN, 32);
+        ANSI_COLORS.put(NamedTextColor.GOLD, 33);
+        ANSI_COLORS.put(NamedTextColor.YELLOW, 33);
+        ANSI_COLORS.put(NamedTextColor.DARK_BLUE, 34);
+        ANSI_COLORS.put(NamedTextColor.BLUE, 34);
+        ANSI_COLORS.put(NamedTextColor.DARK_PURPLE, 35);
+        ANSI_COLORS.put(NamedTextColor.LIGHT_PURPLE, 35);
+        ANSI_COLORS.put(NamedTextColor.DARK_AQUA, 36);
+        ANSI_COLORS.put(NamedTextColor.AQUA, 36);
+        ANSI_COLORS.put(NamedTextColor.WHITE, 37);
+    }
 
     /**
      * Default instance of the DiscordSerializer, incase that's all you need.
@@ -112,97 +145,322 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
     public String serialize(@NotNull final Component component, @NotNull final DiscordSerializerOptions serializerOptions) {
         ComponentFlattener flattener = serializerOptions.getFlattener();
 
-        FlattenListener listener = new FlattenListener(serializerOptions);
-        flattener.flatten(component, listener);
+        if (flattener == DiscordSerializerOptions.DEFAULT_FLATTENER && isPlainText(component, serializerOptions)) {
+            // Same as a single text without formatting below, with nothing before it that could be a link
+            String content = ((TextComponent) component).content();
+            return serializerOptions.isEscapeMarkdown() ? escapeMarkdown(content) : content;
+        }
 
         StringBuilder stringBuilder = new StringBuilder();
-        List<Text> texts = listener.getTexts();
-        for (Text text : texts) {
-            String content = text.getContent().toString();
-            if (content.isEmpty()) {
-                // won't work
+        for (Text text : flatten(component, serializerOptions, null)) {
+            appendText(stringBuilder, text, serializerOptions);
+        }
+        int length = stringBuilder.length();
+        return length < 1 ? "" : stringBuilder.substring(0, length - 1);
+    }
+
+    /**
+     * Serializes a {@link Component} to a Discord {@code ansi} code block with this serializer's {@link DiscordSerializer#getDefaultOptions() default options}.<br/>
+     * Use {@link DiscordSerializer#serializeAnsi(Component, DiscordSerializerOptions)} to fine tune the serialization options.
+     *
+     * @param component The text component from a Minecraft chat message
+     * @return Discord ansi code block
+     */
+    @NotNull
+    public String serializeAnsi(@NotNull final Component component) {
+        return serializeAnsi(component, getDefaultOptions());
+    }
+
+    /**
+     * Serializes a {@link Component} to a Discord {@code ansi} code block, for mirroring colored console output.
+     * Colors (as the nearest color Discord shows), bold and underline are written as ANSI SGR codes,
+     * only the codes that change between texts are written. Discord doesn't show italic or strikethrough in
+     * {@code ansi} code blocks, so they are not written.
+     * <p>
+     * Code blocks don't have markdown so nothing is escaped or masked, only the flattener of the options is used.
+     *
+     * @param component The text component from a Minecraft chat message
+     * @param serializerOptions the options to use
+     * @return Discord ansi code block
+     */
+    @NotNull
+    public String serializeAnsi(@NotNull final Component component, @NotNull final DiscordSerializerOptions serializerOptions) {
+        StringBuilder stringBuilder = new StringBuilder(ANSI_BLOCK_START);
+        int writtenColor = ANSI_NO_COLOR;
+        boolean writtenBold = false;
+        boolean writtenUnderline = false;
+        for (Text text : flatten(component, serializerOptions, null, false, true)) {
+            StringBuilder content = text.getContent();
+            if (content.length() == 0) {
                 continue;
             }
 
-            if (text.isBold()) {
-                stringBuilder.append("**");
-            }
-            if (text.isStrikethrough()) {
-                stringBuilder.append("~~");
-            }
-            if (text.isItalic()) {
-                stringBuilder.append("_");
-            }
-            if (text.isUnderline()) {
-                stringBuilder.append("__");
+            int color = ansiColor(text.getColor());
+            boolean bold = text.isBold();
+            boolean underline = text.isUnderline();
+            if (color != writtenColor || bold != writtenBold || underline != writtenUnderline) {
+                stringBuilder.append("\u001B[");
+                boolean first = true;
+                if ((color == ANSI_NO_COLOR && writtenColor != ANSI_NO_COLOR) || (writtenBold && !bold) || (writtenUnderline && !underline)) {
+                    // Codes can't be removed one at a time
+                    first = appendAnsiCode(stringBuilder, ANSI_RESET, true);
+                    writtenColor = ANSI_NO_COLOR;
+                    writtenBold = false;
+                    writtenUnderline = false;
+                }
+                if (bold && !writtenBold) {
+                    first = appendAnsiCode(stringBuilder, ANSI_BOLD, first);
+                }
+                if (underline && !writtenUnderline) {
+                    first = appendAnsiCode(stringBuilder, ANSI_UNDERLINE, first);
+                }
+                if (color != writtenColor) {
+                    appendAnsiCode(stringBuilder, color, first);
+                }
+                stringBuilder.append('m');
+
+                writtenColor = color;
+                writtenBold = bold;
+                writtenUnderline = underline;
             }
 
-            // Markdown doesn't apply inside links
-            if (serializerOptions.isEscapeMarkdown() && !LINK_PATTERN.matcher(stringBuilder).find()) {
-                content = content
-                        // Bold / Italics
-                        .replace("*", "\\*")
-                        // Strikethrough
-                        .replace("~", "\\~")
-                        // Underscore
-                        .replace("_", "\\_")
-                        // Code string / code block
-                        .replace("`", "\\`")
-                        // Spoiler
-                        .replace("|", "\\|")
-                        // Emoji
-                        .replace(":", "\\:")
-                        // Masked link
-                        .replace("[", "\\[");
+            for (int index = 0; index < content.length(); index++) {
+                char character = content.charAt(index);
+                int length = stringBuilder.length();
+                if (character == '`' && stringBuilder.charAt(length - 1) == '`' && stringBuilder.charAt(length - 2) == '`') {
+                    // Would close the code block
+                    stringBuilder.append(SEPARATOR);
+                }
+                stringBuilder.append(character);
             }
+        }
+        return stringBuilder.append(ANSI_BLOCK_END).toString();
+    }
 
-            String openUrl = text.getOpenUrl();
-            if (serializerOptions.isMaskedLinks() && openUrl != null) {
-                String display = text.getUrlHover();
-                content = "[" + content + "](<" + openUrl + ">" + (display != null ? " \"" + display + "\"" : "") + ")";
-            }
+    /**
+     * Appends a SGR code, separated from the previous code unless it's the first.
+     *
+     * @return {@code false}, the next code is never the first
+     */
+    private static boolean appendAnsiCode(StringBuilder stringBuilder, int code, boolean first) {
+        if (!first) {
+            stringBuilder.append(';');
+        }
+        stringBuilder.append(code);
+        return false;
+    }
 
-            stringBuilder.append(content);
+    private static int ansiColor(TextColor color) {
+        if (color == null) {
+            return ANSI_NO_COLOR;
+        }
+        NamedTextColor named = color instanceof NamedTextColor ? (NamedTextColor) color : NamedTextColor.nearestTo(color);
+        return ANSI_COLORS.get(named);
+    }
 
-            if (text.isUnderline()) {
-                stringBuilder.append("__");
-            }
-            if (text.isItalic()) {
-                stringBuilder.append("_");
-            }
-            if (text.isStrikethrough()) {
-                stringBuilder.append("~~");
-            }
-            if (text.isBold()) {
-                stringBuilder.append("**");
-            }
+    /**
+     * Creates a session for serializing new versions of the same message with this serializer's {@link DiscordSerializer#getDefaultOptions() default options}.
+     *
+     * @return a new session
+     * @see DiscordSerializerSession
+     */
+    @NotNull
+    public DiscordSerializerSession createSession() {
+        return new DiscordSerializerSession(getDefaultOptions());
+    }
 
-            // Separator for formatting, since going from bold -> bold underline
-            // would lead to "**bold****__bold underline__**" which doesn't work
-            stringBuilder.append("\u200B"); // zero width space
+    /**
+     * Flattens the component into texts with the same formatting, the texts may be empty.
+     *
+     * @param inherited the formatting the component inherits, {@code null} for none
+     */
+    static List<Text> flatten(Component component, DiscordSerializerOptions serializerOptions, Text inherited) {
+        return flatten(component, serializerOptions, inherited, serializerOptions.isMaskedLinks(), false);
+    }
+
+    /**
+     * Flattens the component into texts with the same formatting, the texts may be empty.
+     *
+     * @param inherited the formatting the component inherits, {@code null} for none
+     * @param gatherLinks if open url click events and hovers should be part of the formatting
+     * @param gatherColors if colors should be part of the formatting
+     */
+    static List<Text> flatten(
+            Component component,
+            DiscordSerializerOptions serializerOptions,
+            Text inherited,
+            boolean gatherLinks,
+            boolean gatherColors
+    ) {
+        ComponentFlattener flattener = serializerOptions.getFlattener();
+        FlattenListener listener = new FlattenListener(serializerOptions, inherited, gatherLinks, gatherColors);
+        if (flattener != DiscordSerializerOptions.DEFAULT_FLATTENER || !walkText(component, listener)) {
+            // Translatable, keybind, score & selector components or a custom flattener
+            listener = new FlattenListener(serializerOptions, inherited, gatherLinks, gatherColors);
+            flattener.flatten(component, listener);
         }
-        int length = stringBuilder.length();
-        return length < 1 ? "" : stringBuilder.substring(0, length - 1);
+        return listener.getTexts();
     }
 
-    private static class FlattenListener implements FlattenerListener {
+    /**
+     * Appends the markdown for the text followed by a separator, empty texts are skipped.
+     * Markdown characters are escaped unless the text is inside a link.
+     */
+    static void appendText(StringBuilder stringBuilder, Text text, DiscordSerializerOptions serializerOptions) {
+        if (text.getContent().length() == 0) {
+            return;
+        }
+        appendText(stringBuilder, text, serializerOptions, serializerOptions.isEscapeMarkdown() && !isInLink(stringBuilder));
+    }
+
+    /**
+     * Appends the markdown for the text followed by a separator, empty texts are skipped.
+     *
+     * @param escape if markdown characters in the content should be escaped
+     */
+    static void appendText(StringBuilder stringBuilder, Text text, DiscordSerializerOptions serializerOptions, boolean escape) {
+        String content = text.getContent().toString();
+        if (content.isEmpty()) {
+            // won't work
+            return;
+        }
+
+        if (text.isBold()) {
+            stringBuilder.append("**");
+        }
+        if (text.isStrikethrough()) {
+            stringBuilder.append("~~");
+        }
+        if (text.isItalic()) {
+            stringBuilder.append("_");
+        }
+        if (text.isUnderline()) {
+            stringBuilder.append("__");
+        }
+
+        if (escape) {
+            content = escapeMarkdown(content);
+        }
+
+        String openUrl = text.getOpenUrl();
+        if (serializerOptions.isMaskedLinks() && openUrl != null) {
+            String display = text.getUrlHover();
+            content = "[" + content + "](<" + openUrl + ">" + (display != null ? " \"" + display + "\"" : "") + ")";
+        }
+
+        stringBuilder.append(content);
+
+        if (text.isUnderline()) {
+            stringBuilder.append("__");
+        }
+        if (text.isItalic()) {
+            stringBuilder.append("_");
+        }
+        if (text.isStrikethrough()) {
+            stringBuilder.append("~~");
+        }
+        if (text.isBold()) {
+            stringBuilder.append("**");
+        }
+
+        // Separator for formatting, since going from bold -> bold underline
+        // would lead to "**bold****__bold underline__**" which doesn't work
+        stringBuilder.append(SEPARATOR);
+    }
+
+    /**
+     * Checks if text appended to the given markdown would be inside a link, markdown doesn't apply inside links.
+     * Appending formatting characters doesn't change the result.
+     */
+    static boolean isInLink(CharSequence markdown) {
+        return LINK_PATTERN.matcher(markdown).find();
+    }
+
+    private static String escapeMarkdown(String content) {
+        return CharScanner.MARKDOWN_ESCAPES.escape(content, '\\');
+    }
+
+    /**
+     * Checks if the component is a single {@link TextComponent} which is serialized as just its content,
+     * it has no children, no decorations that have markdown and no link (if links are masked).
+     */
+    private static boolean isPlainText(Component component, DiscordSerializerOptions serializerOptions) {
+        if (!(component instanceof TextComponent) || !component.children().isEmpty()) {
+            return false;
+        }
+
+        Style style = component.style();
+        if (style.isEmpty()) {
+            return true;
+        }
+        if (style.decoration(TextDecoration.BOLD) == TextDecoration.State.TRUE
+                || style.decoration(TextDecoration.STRIKETHROUGH) == TextDecoration.State.TRUE
+                || style.decoration(TextDecoration.ITALIC) == TextDecoration.State.TRUE
+                || style.decoration(TextDecoration.UNDERLINED) == TextDecoration.State.TRUE) {
+            return false;
+        }
+
+        ClickEvent clickEvent = style.clickEvent();
+        return !serializerOptions.isMaskedLinks() || clickEvent == null || clickEvent.action() != ClickEvent.Action.OPEN_URL;
+    }
+
+    /**
+     * Walks a tree of {@link TextComponent}s the same way the {@link DiscordSerializerOptions#DEFAULT_FLATTENER} would,
+     * without looking up mappers for every component.
+     *
+     * @return {@code false} if the tree contains anything other than {@link TextComponent}s, the listener can't be used after that
+     */
+    private static boolean walkText(Component component, FlattenListener listener) {
+        if (!(component instanceof TextComponent)) {
+            return false;
+        }
+
+        // Empty styles don't change the formatting, so they are never pushed or popped by the listener
+        Style style = component.style();
+        boolean pushStyle = !style.isEmpty();
+        if (pushStyle) {
+            listener.pushStyle(style);
+        }
+        listener.component(((TextComponent) component).content());
+        for (Component child : component.children()) {
+            if (!walkText(child, listener)) {
+                return false;
+            }
+        }
+        if (pushStyle) {
+            listener.popStyle(style);
+        }
+        return true;
+    }
+
+    static class FlattenListener implements FlattenerListener {
 
         private final Map<Style, Text> previousText = new HashMap<>();
         private final List<Text> texts = new ArrayList<>();
-        private Text currentText = null;
+        // Starts as unformatted text so that the first style pushed is popped like any other
+        private Text currentText = new Text();
+        private Map<Component, String> hoverTexts;
 
         private final DiscordSerializerOptions serializerOptions;
         private final boolean gatherLinks;
+        private final boolean gatherColors;
 
-        public FlattenListener(DiscordSerializerOptions serializerOptions) {
+        public FlattenListener(DiscordSerializerOptions serializerOptions, Text inherited) {
+            this(serializerOptions, inherited, serializerOptions.isMaskedLinks(), false);
+        }
+
+        public FlattenListener(DiscordSerializerOptions serializerOptions, Text inherited, boolean gatherLinks, boolean gatherColors) {
             this.serializerOptions = serializerOptions;
-            this.gatherLinks = serializerOptions.isMaskedLinks();
+            this.gatherLinks = gatherLinks;
+            this.gatherColors = gatherColors;
+            if (inherited != null) {
+                currentText = inherited.clone();
+                currentText.getContent().setLength(0);
+            }
         }
 
         public List<Text> getTexts() {
-            if (currentText != null) {
-                texts.add(currentText);
-            }
+            texts.add(currentText);
             return texts;
         }
 
@@ -210,13 +468,8 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
         public void pushStyle(@NotNull Style style) {
             Boolean isBold = null, isItalic = null, isUnderline = null, isStrikethrough = null;
 
-            Text text;
-            if (currentText != null) {
-                text = currentText.clone();
-                text.getContent().setLength(0);
-            } else {
-                text = new Text();
-            }
+            Text text = currentText.clone();
+            text.getContent().setLength(0);
 
             TextDecoration.State bold = style.decoration(TextDecoration.BOLD);
             if (bold != TextDecoration.State.NOT_SET) {
@@ -242,6 +495,11 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
                 text.setStrikethrough(strikethrough == TextDecoration.State.TRUE);
             }
 
+            TextColor color = style.color();
+            if (gatherColors && color != null) {
+                text.setColor(color);
+            }
+
             ClickEvent clickEvent = style.clickEvent();
             if (gatherLinks && clickEvent != null && clickEvent.action() == ClickEvent.Action.OPEN_URL) {
                 text.setOpenUrl(clickEvent.value());
@@ -249,14 +507,17 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
 
             HoverEvent<?> hoverEvent = style.hoverEvent();
             if (gatherLinks && hoverEvent != null && hoverEvent.action() == HoverEvent.Action.SHOW_TEXT) {
-                FlattenToTextOnly flatten = new FlattenToTextOnly();
-                serializerOptions.getFlattener().flatten((Component) hoverEvent.value(), flatten);
-                text.setUrlHover(flatten.getContent());
+                text.setHover((Component) hoverEvent.value());
             }
 
-            if (currentText == null) {
-                currentText = text;
-            } else if (!text.formattingMatches(currentText)) {
+            // Hovers are only used for masked links, so they are only flattened for text with a link
+            Component hover = text.getHover();
+            if (hover != null && text.getOpenUrl() != null && text.getUrlHover() == null) {
+                text.setUrlHover(hoverText(hover));
+            }
+
+            // A hover without a link isn't part of the formatting, but it has to be carried to the links in the children
+            if (!text.formattingMatches(currentText) || text.getHover() != currentText.getHover()) {
                 // If formatting is different in any way, switch to a new text part because
                 // "**bold __bold underline** underline__" does not work
                 texts.add(currentText);
@@ -265,6 +526,30 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
             }
         }
 
+        /**
+         * Gets the flattened text of a hover, the same hover is only flattened once per serialize call
+         * (and once per the options' hover cache).
+         */
+        private String hoverText(Component hover) {
+            if (hoverTexts == null) {
+                hoverTexts = new IdentityHashMap<>();
+            }
+
+            String text = hoverTexts.get(hover);
+            if (text == null) {
+                BoundedCache<Component, String> hoverCache = serializerOptions.getHoverCache();
+                text = hoverCache != null ? hoverCache.get(hover, this::flattenHover) : flattenHover(hover);
+                hoverTexts.put(hover, text);
+            }
+            return text;
+        }
+
+        private String flattenHover(Component hover) {
+            FlattenToTextOnly flatten = new FlattenToTextOnly();
+            serializerOptions.getFlattener().flatten(hover, flatten);
+            return flatten.getContent();
+        }
+
         @Override
         public void popStyle(@NotNull Style style) {
             Text pop = previousText.remove(style);
@@ -277,9 +562,6 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
 
         @Override
         public void component(@NotNull String text) {
-            if (currentText == null) {
-                currentText = new Text();
-            }
             currentText.appendContent(text);
         }
     }
@@ -298,15 +580,17 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
         }
     }
 
-    private static class Text {
+    static class Text {
 
         private final StringBuilder content = new StringBuilder();
         private boolean bold;
         private boolean strikethrough;
         private boolean underline;
         private boolean italic;
+        private TextColor color;
 
         private String openUrl;
+        private Component hover;
         private String urlHover;
 
         public Text() {}
@@ -317,7 +601,9 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
                 boolean strikethrough,
                 boolean underline,
                 boolean italic,
+                TextColor color,
                 String openUrl,
+                Component hover,
                 String urlHover
         ) {
             this.content.append(content);
@@ -325,7 +611,9 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
             this.strikethrough = strikethrough;
             this.underline = underline;
             this.italic = italic;
+            this.color = color;
             this.openUrl = openUrl;
+            this.hover = hover;
             this.urlHover = urlHover;
         }
 
@@ -369,6 +657,14 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
             this.italic = italic;
         }
 
+        public TextColor getColor() {
+            return color;
+        }
+
+        public void setColor(TextColor color) {
+            this.color = color;
+        }
+
         public String getOpenUrl() {
             return openUrl;
         }
@@ -377,6 +673,18 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
             this.openUrl = openUrl;
         }
 
+        public Component getHover() {
+            return hover;
+        }
+
+        /**
+         * Sets the hover of this text, the flattened {@link #getUrlHover() url hover} is cleared until it is set again.
+         */
+        public void setHover(Component hover) {
+            this.hover = hover;
+            this.urlHover = null;
+        }
+
         public String getUrlHover() {
             return urlHover;
         }
@@ -397,6 +705,7 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
                     && strikethrough == other.strikethrough
                     && underline == other.underline
                     && italic == other.italic
+                    && Objects.equals(color, other.color)
                     && Objects.equals(openUrl, other.openUrl)
                     && Objects.equals(urlHover, other.urlHover);
         }
@@ -404,7 +713,7 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
         @SuppressWarnings("MethodDoesntCallSuperMethod")
         @Override
         public Text clone() {
-            return new Text(content, bold, strikethrough, underline, italic, openUrl, urlHover);
+            return new Text(content, bold, strikethrough, underline, italic, color, openUrl, hover, urlHover);
         }
 
         @Override
@@ -417,13 +726,14 @@ public class DiscordSerializer implements ComponentEncoder<Component, String> {
                     && underline == text.underline
                     && italic == text.italic
                     && content.toString().contentEquals(text.content)
+                    && Objects.equals(color, text.color)
                     && Objects.equals(openUrl, text.openUrl)
                     && Objects.equals(urlHover, text.urlHover);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(content, bold, strikethrough, underline, italic, openUrl, urlHover);
+            return Objects.hash(content, bold, strikethrough, underline, italic, color, openUrl, urlHover);
         }
     }
 
@@ -29,20 +29,26 @@ import java.util.function.Function;
  */
 public final class DiscordSerializerOptions {
 
+    /**
+     * The flattener of the default options, {@link DiscordSerializer} walks trees of only {@link TextComponent}s
+     * by itself instead of using the flattener when the options use this flattener.
+     */
+    @SuppressWarnings("deprecation")
+    static final ComponentFlattener DEFAULT_FLATTENER = ComponentFlattener.builder()
+            .mapper(TextComponent.class, TextComponent::content)
+            .mapper(ScoreComponent.class, ScoreComponent::value)
+            .mapper(SelectorComponent.class, SelectorComponent::pattern)
+            .build();
+
     /**
      * Creates the default {@link DiscordSerializerOptions}.
      * @return the default {@link DiscordSerializerOptions}.
      */
-    @SuppressWarnings("deprecation")
     public static DiscordSerializerOptions defaults() {
         return new DiscordSerializerOptions(
                 false,
                 true,
-                ComponentFlattener.builder()
-                        .mapper(TextComponent.class, TextComponent::content)
-                        .mapper(ScoreComponent.class, ScoreComponent::value)
-                        .mapper(SelectorComponent.class, SelectorComponent::pattern)
-                        .build()
+                DEFAULT_FLATTENER
         );
     }
 
@@ -53,6 +59,8 @@ public final class DiscordSerializerOptions {
     @NotNull
     private final ComponentFlattener flattener;
 
+    private final BoundedCache<Component, String> hoverCache;
+
     public DiscordSerializerOptions(
             boolean embedLinks,
             boolean escapeMarkdown,
@@ -73,10 +81,20 @@ public final class DiscordSerializerOptions {
             boolean maskedLinks,
             boolean escapeMarkdown,
             @NotNull ComponentFlattener flattener
+    ) {
+        this(maskedLinks, escapeMarkdown, flattener, null);
+    }
+
+    private DiscordSerializerOptions(
+            boolean maskedLinks,
+            boolean escapeMarkdown,
+            @NotNull ComponentFlattener flattener,
+            BoundedCache<Component, String> hoverCache
     ) {
         this.maskedLinks = maskedLinks;
         this.escapeMarkdown = escapeMarkdown;
         this.flattener = flattener;
+        this.hoverCache = hoverCache;
     }
 
     public boolean isMaskedLinks() {
@@ -84,7 +102,7 @@ public final class DiscordSerializerOptions {
     }
 
     public DiscordSerializerOptions withMaskedLinks(boolean maskedLinks) {
-        return new DiscordSerializerOptions(maskedLinks, escapeMarkdown, flattener);
+        return new DiscordSerializerOptions(maskedLinks, escapeMarkdown, flattener, hoverCache);
     }
 
     /**
@@ -102,7 +120,7 @@ public final class DiscordSerializerOptions {
      * @return the new instance
      */
     public DiscordSerializerOptions withEscapeMarkdown(boolean escapeMarkdown) {
-        return new DiscordSerializerOptions(maskedLinks, escapeMarkdown, flattener);
+        return new DiscordSerializerOptions(maskedLinks, escapeMarkdown, flattener, hoverCache);
     }
 
     public @NotNull ComponentFlattener getFlattener() {
@@ -110,7 +128,37 @@ public final class DiscordSerializerOptions {
     }
 
     public DiscordSerializerOptions withFlattener(ComponentFlattener flattener) {
-        return new DiscordSerializerOptions(maskedLinks, escapeMarkdown, flattener);
+        return new DiscordSerializerOptions(maskedLinks, escapeMarkdown, flattener, newHoverCache(getHoverCacheSize()));
+    }
+
+    /**
+     * The maximum amount of flattened hover texts for masked links that are kept between serialize calls,
+     * hovers are always only flattened once per serialize call.
+     * @return the maximum amount of cached hover texts, {@code 0} if they are not cached between serialize calls
+     */
+    public int getHoverCacheSize() {
+        return hoverCache != null ? hoverCache.getMaxSize() : 0;
+    }
+
+    /**
+     * Creates a new instance of {@link dev.vankka.mcdiscordreserializer.discord.DiscordSerializerOptions}
+     * based on this instance with a new hover cache of the provided size, the cache is shared by all serialize calls
+     * using the new instance (or instances created from it, unless the flattener is changed).
+     * Useful when the same hovers are serialized repeatedly, for example item tooltips.
+     * Hovers are cached by identity, so only the same hover {@link Component} instances are found in the cache.
+     * @param hoverCacheSize the maximum amount of cached hover texts, {@code 0} to not cache them between serialize calls
+     * @return the new instance
+     */
+    public DiscordSerializerOptions withHoverCacheSize(int hoverCacheSize) {
+        return new DiscordSerializerOptions(maskedLinks, escapeMarkdown, flattener, newHoverCache(hoverCacheSize));
+    }
+
+    BoundedCache<Component, String> getHoverCache() {
+        return hoverCache;
+    }
+
+    private static BoundedCache<Component, String> newHoverCache(int size) {
+        return size > 0 ? new BoundedCache<>(size, true) : null;
     }
 
     /**
@@ -132,7 +180,7 @@ public final class DiscordSerializerOptions {
      */
     @Deprecated
     public DiscordSerializerOptions withEmbedLinks(boolean embedLinks) {
-        return new DiscordSerializerOptions(embedLinks, escapeMarkdown, flattener);
+        return new DiscordSerializerOptions(embedLinks, escapeMarkdown, flattener, hoverCache);
     }
 
     /**
@@ -154,7 +202,7 @@ public final class DiscordSerializerOptions {
      */
     @Deprecated
     public DiscordSerializerOptions withKeybindProvider(Function<KeybindComponent, String> keybindProvider) {
-        return new DiscordSerializerOptions(maskedLinks, escapeMarkdown, flattener.toBuilder().mapper(KeybindComponent.class, keybindProvider).build());
+        return new DiscordSerializerOptions(maskedLinks, escapeMarkdown, flattener.toBuilder().mapper(KeybindComponent.class, keybindProvider).build(), newHoverCache(getHoverCacheSize()));
     }
 
     /**
@@ -177,7 +225,7 @@ public final class DiscordSerializerOptions {
      */
     @Deprecated
     public DiscordSerializerOptions withTranslationProvider(Function<TranslatableComponent, String> translationProvider) {
-        return new DiscordSerializerOptions(maskedLinks, escapeMarkdown, flattener.toBuilder().mapper(TranslatableComponent.class, translationProvider).build());
+        return new DiscordSerializerOptions(maskedLinks, escapeMarkdown, flattener.toBuilder().mapper(TranslatableComponent.class, translationProvider).build(), newHoverCache(getHoverCacheSize()));
     }
 
     @Override
@@ -186,6 +234,7 @@ public final class DiscordSerializerOptions {
                 "maskedLinks=" + maskedLinks +
                 ", escapeMarkdown=" + escapeMarkdown +
                 ", flattener=" + flattener +
+                ", hoverCacheSize=" + getHoverCacheSize() +
                 '}';
     }
 }
@@ -0,0 +1,223 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.discord;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.flattener.FlattenerListener;
+import net.kyori.adventure.text.format.Style;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Serializes new versions of the same message, like a leaderboard or a status panel that is edited every few seconds,
+ * keeping the flattened texts of the children of the message between serializations.
+ * Children that didn't change (the same instance or an equal {@link Component}) are not flattened again,
+ * the texts of the children are joined the same way {@link DiscordSerializer#serialize(Component, DiscordSerializerOptions)} does.
+ * <p>
+ * Sessions are not thread safe.
+ *
+ * @see DiscordSerializer#createSession()
+ */
+public final class DiscordSerializerSession {
+
+    private final DiscordSerializerOptions serializerOptions;
+
+    private DiscordSerializer.Text formatting;
+    private Component[] children = new Component[0];
+    private List<DiscordSerializer.Text>[] childTexts = newTextsArray(0);
+
+    /**
+     * Creates a new session.
+     * @param serializerOptions the options to serialize with
+     */
+    public DiscordSerializerSession(@NotNull DiscordSerializerOptions serializerOptions) {
+        this.serializerOptions = serializerOptions;
+    }
+
+    /**
+     * The options this session serializes with.
+     * @return the options of this session
+     */
+    @NotNull
+    public DiscordSerializerOptions getSerializerOptions() {
+        return serializerOptions;
+    }
+
+    /**
+     * Serializes the next version of the message to Discord formatting (markdown),
+     * only children of the message which changed since the last version are flattened.
+     *
+     * @param component the message
+     * @return Discord markdown formatted String
+     */
+    @NotNull
+    public String serialize(@NotNull Component component) {
+        List<DiscordSerializer.Text> head = flattenHead(component);
+        DiscordSerializer.Text pending = head.remove(head.size() - 1);
+
+        DiscordSerializer.Text formatting = pending.clone();
+        formatting.getContent().setLength(0);
+        if (!formatting.formattingMatches(this.formatting) || !Objects.equals(formatting.getHover(), this.formatting.getHover())) {
+            // Children inherit the formatting of the message, so everything has to be flattened again
+            children = new Component[0];
+            childTexts = newTextsArray(0);
+            this.formatting = formatting;
+        }
+
+        List<Component> newChildren = component.children();
+        Component[] nextChildren = newChildren.toArray(new Component[0]);
+        List<DiscordSerializer.Text>[] nextChildTexts = newTextsArray(nextChildren.length);
+        // Built only when a child isn't the same instance as the previous child at its position,
+        // comparing by equality (which compares the entire component) only when comparing by identity fails
+        Map<Component, List<DiscordSerializer.Text>> textsByIdentity = null;
+        Map<Component, List<DiscordSerializer.Text>> textsByEquality = null;
+        for (int index = 0; index < nextChildren.length; index++) {
+            Component child = nextChildren[index];
+            Component previous = index < children.length ? children[index] : null;
+            List<DiscordSerializer.Text> texts = null;
+            if (previous == child) {
+                texts = childTexts[index];
+            } else if (children.length > 0) {
+                if (textsByIdentity == null) {
+                    textsByIdentity = textsByChild(new IdentityHashMap<>());
+                }
+                texts = textsByIdentity.get(child);
+                if (texts == null && previous != null && previous.equals(child)) {
+                    texts = childTexts[index];
+                }
+                if (texts == null) {
+                    if (textsByEquality == null) {
+                        textsByEquality = textsByChild(new HashMap<>());
+                    }
+                    texts = textsByEquality.get(child);
+                }
+            }
+            if (texts == null) {
+                texts = DiscordSerializer.flatten(child, serializerOptions, formatting);
+            }
+            nextChildTexts[index] = texts;
+        }
+        this.children = nextChildren;
+        this.childTexts = nextChildTexts;
+
+        StringBuilder stringBuilder = new StringBuilder();
+        for (DiscordSerializer.Text text : head) {
+            DiscordSerializer.appendText(stringBuilder, text, serializerOptions);
+        }
+        for (List<DiscordSerializer.Text> texts : nextChildTexts) {
+            pending = join(stringBuilder, pending, texts);
+        }
+        DiscordSerializer.appendText(stringBuilder, pending, serializerOptions);
+
+        int length = stringBuilder.length();
+        return length < 1 ? "" : stringBuilder.substring(0, length - 1);
+    }
+
+    /**
+     * Clears the texts kept from the last serialization.
+     */
+    public void clear() {
+        formatting = null;
+        children = new Component[0];
+        childTexts = newTextsArray(0);
+    }
+
+    /**
+     * Puts the texts of the children of the last version into the map.
+     *
+     * @return the map
+     */
+    private Map<Component, List<DiscordSerializer.Text>> textsByChild(Map<Component, List<DiscordSerializer.Text>> map) {
+        for (int index = 0; index < children.length; index++) {
+            map.put(children[index], childTexts[index]);
+        }
+        return map;
+    }
+
+    /**
+     * Flattens the message without its children, without popping the message's style.
+     *
+     * @return the texts, the last one is the text the children are added to
+     */
+    private List<DiscordSerializer.Text> flattenHead(Component component) {
+        DiscordSerializer.FlattenListener listener = new DiscordSerializer.FlattenListener(serializerOptions, null);
+        serializerOptions.getFlattener().flatten(component.children(Collections.emptyList()), new FlattenerListener() {
+
+            private int depth = 0;
+
+            @Override
+            public void pushStyle(@NotNull Style style) {
+                depth++;
+                listener.pushStyle(style);
+            }
+
+            @Override
+            public void component(@NotNull String text) {
+                listener.component(text);
+            }
+
+            @Override
+            public void popStyle(@NotNull Style style) {
+                if (--depth > 0) {
+                    listener.popStyle(style);
+                }
+            }
+        });
+        return listener.getTexts();
+    }
+
+    /**
+     * Adds the texts of a child after the pending text, the first text continues the pending text if the formatting is the same.
+     * Kept texts are never modified.
+     *
+     * @return the new pending text
+     */
+    private DiscordSerializer.Text join(StringBuilder stringBuilder, DiscordSerializer.Text pending, List<DiscordSerializer.Text> texts) {
+        int last = texts.size() - 1;
+        for (int index = 0; index <= last; index++) {
+            DiscordSerializer.Text text = texts.get(index);
+            if (index == 0 && text.formattingMatches(pending)) {
+                pending.getContent().append(text.getContent());
+                continue;
+            }
+
+            if (pending != null) {
+                DiscordSerializer.appendText(stringBuilder, pending, serializerOptions);
+                pending = null;
+            }
+            if (index == last) {
+                pending = text.clone();
+            } else {
+                DiscordSerializer.appendText(stringBuilder, text, serializerOptions);
+            }
+        }
+        return pending;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<DiscordSerializer.Text>[] newTextsArray(int length) {
+        return (List<DiscordSerializer.Text>[]) new List<?>[length];
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.discord;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link Component} with placeholder slots compiled into Discord markdown, for messages that always have the same format
+ * like {@code [prefix] name: message}. The parts of the template that don't change are serialized once when compiling,
+ * serializing a message only serializes the {@link Component}s in the slots.
+ * <p>
+ * Slots are {@link TextComponent}s in the template which have the name of the slot as their content, for example {@code %message%}.
+ * The component in a slot has the formatting of the slot component, it's merged with the text around the slot
+ * if the formatting is the same, otherwise separated like formatting changes are by {@link DiscordSerializer}.
+ * <p>
+ * Templates are thread safe, as long as the {@link DiscordSerializerOptions}' flattener is.
+ *
+ * @see DiscordSerializer
+ */
+public final class DiscordTemplate {
+
+    // Followed by the index of the slot in the content of the texts, a noncharacter that shouldn't appear in chat
+    private static final char SLOT_MARKER = '\uFFFF';
+
+    /**
+     * Compiles a template.
+     *
+     * @param template the template
+     * @param serializerOptions the options to serialize the template and messages with
+     * @param slots the names of the slots in the template, in the order the components are given to {@link #serialize(Component...)}
+     * @return the compiled template
+     */
+    @NotNull
+    public static DiscordTemplate compile(
+            @NotNull Component template,
+            @NotNull DiscordSerializerOptions serializerOptions,
+            @NotNull String... slots
+    ) {
+        List<String> slotNames = Collections.unmodifiableList(Arrays.asList(slots.clone()));
+        List<DiscordSerializer.Text> texts = DiscordSerializer.flatten(markSlots(template, slotNames), serializerOptions, null);
+
+        // Texts before the first slot are always escaped the same way, as they are always at the start
+        StringBuilder prefix = new StringBuilder();
+        List<Piece> pieces = new ArrayList<>();
+        for (DiscordSerializer.Text text : texts) {
+            String content = text.getContent().toString();
+            if (content.isEmpty()) {
+                continue;
+            }
+
+            if (content.indexOf(SLOT_MARKER) != -1) {
+                pieces.add(new SlotText(text, content, serializerOptions));
+            } else if (pieces.isEmpty()) {
+                DiscordSerializer.appendText(prefix, text, serializerOptions);
+            } else {
+                pieces.add(new ConstantText(text, serializerOptions));
+            }
+        }
+        return new DiscordTemplate(slotNames, prefix.toString(), pieces.toArray(new Piece[0]));
+    }
+
+    /**
+     * Replaces the slots with text components that contain the slot marker and index, keeping their style and children.
+     */
+    private static Component markSlots(Component component, List<String> slots) {
+        if (component instanceof TextComponent) {
+            int slot = slots.indexOf(((TextComponent) component).content());
+            if (slot != -1) {
+                component = ((TextComponent) component).content(new String(new char[] {SLOT_MARKER, (char) slot}));
+            }
+        }
+
+        List<Component> children = component.children();
+        if (children.isEmpty()) {
+            return component;
+        }
+        List<Component> markedChildren = new ArrayList<>(children.size());
+        for (Component child : children) {
+            markedChildren.add(markSlots(child, slots));
+        }
+        return component.children(markedChildren);
+    }
+
+    private final List<String> slots;
+    private final String prefix;
+    private final Piece[] pieces;
+
+    private DiscordTemplate(List<String> slots, String prefix, Piece[] pieces) {
+        this.slots = slots;
+        this.prefix = prefix;
+        this.pieces = pieces;
+    }
+
+    /**
+     * The names of the slots of this template.
+     * @return the names of the slots, in the order the components are given to {@link #serialize(Component...)}
+     */
+    @NotNull
+    public List<String> getSlots() {
+        return slots;
+    }
+
+    /**
+     * Serializes a message with this template.
+     *
+     * @param components the components for the slots, in the order of {@link #getSlots()}
+     * @return Discord markdown formatted String
+     * @throws IllegalArgumentException if the amount of components is not the same as the amount of slots
+     */
+    @NotNull
+    public String serialize(@NotNull Component... components) {
+        if (components.length != slots.size()) {
+            throw new IllegalArgumentException("Expected " + slots.size() + " components, got " + components.length);
+        }
+
+        StringBuilder stringBuilder = new StringBuilder(prefix.length() + 64).append(prefix);
+        for (Piece piece : pieces) {
+            piece.append(stringBuilder, components);
+        }
+        int length = stringBuilder.length();
+        return length < 1 ? "" : stringBuilder.substring(0, length - 1);
+    }
+
+    private interface Piece {
+
+        void append(StringBuilder stringBuilder, Component[] components);
+    }
+
+    /**
+     * A text without slots after the first slot, whether it's escaped depends on the text before it.
+     */
+    private static class ConstantText implements Piece {
+
+        private final DiscordSerializerOptions serializerOptions;
+        private final String escaped;
+        private final String unescaped;
+
+        private ConstantText(DiscordSerializer.Text text, DiscordSerializerOptions serializerOptions) {
+            this.serializerOptions = serializerOptions;
+            StringBuilder stringBuilder = new StringBuilder();
+            DiscordSerializer.appendText(stringBuilder, text, serializerOptions, false);
+            this.unescaped = stringBuilder.toString();
+            if (serializerOptions.isEscapeMarkdown()) {
+                stringBuilder.setLength(0);
+                DiscordSerializer.appendText(stringBuilder, text, serializerOptions, true);
+                this.escaped = stringBuilder.toString();
+            } else {
+                this.escaped = unescaped;
+            }
+        }
+
+        @Override
+        public void append(StringBuilder stringBuilder, Component[] components) {
+            boolean escape = serializerOptions.isEscapeMarkdown() && !DiscordSerializer.isInLink(stringBuilder);
+            stringBuilder.append(escape ? escaped : unescaped);
+        }
+    }
+
+    /**
+     * A text with one or more slots, the components in the slots are merged with the surrounding text
+     * where the formatting is the same.
+     */
+    private static class SlotText implements Piece {
+
+        private final DiscordSerializerOptions serializerOptions;
+        private final DiscordSerializer.Text formatting;
+        private final String[] parts;
+        private final int[] slotIndexes;
+
+        private SlotText(DiscordSerializer.Text text, String content, DiscordSerializerOptions serializerOptions) {
+            this.serializerOptions = serializerOptions;
+            this.formatting = text.clone();
+            this.formatting.getContent().setLength(0);
+
+            List<String> parts = new ArrayList<>();
+            List<Integer> slotIndexes = new ArrayList<>();
+            int start = 0;
+            int marker;
+            while ((marker = content.indexOf(SLOT_MARKER, start)) != -1) {
+                parts.add(content.substring(start, marker));
+                slotIndexes.add((int) content.charAt(marker + 1));
+                start = marker + 2;
+            }
+            parts.add(content.substring(start));
+
+            this.parts = parts.toArray(new String[0]);
+            this.slotIndexes = new int[slotIndexes.size()];
+            for (int index = 0; index < this.slotIndexes.length; index++) {
+                this.slotIndexes[index] = slotIndexes.get(index);
+            }
+        }
+
+        @Override
+        public void append(StringBuilder stringBuilder, Component[] components) {
+            DiscordSerializer.Text pending = part(0);
+            for (int index = 0; index < slotIndexes.length; index++) {
+                for (DiscordSerializer.Text text : DiscordSerializer.flatten(components[slotIndexes[index]], serializerOptions, formatting)) {
+                    pending = merge(stringBuilder, pending, text);
+                }
+                pending = merge(stringBuilder, pending, part(index + 1));
+            }
+            DiscordSerializer.appendText(stringBuilder, pending, serializerOptions);
+        }
+
+        private DiscordSerializer.Text part(int index) {
+            DiscordSerializer.Text part = formatting.clone();
+            part.appendContent(parts[index]);
+            return part;
+        }
+
+        /**
+         * Adds the text to the pending text if the formatting is the same, otherwise appends the pending text.
+         *
+         * @return the new pending text
+         */
+        private DiscordSerializer.Text merge(StringBuilder stringBuilder, DiscordSerializer.Text pending, DiscordSerializer.Text text) {
+            if (text.getContent().length() == 0) {
+                return pending;
+            }
+            if (text.formattingMatches(pending)) {
+                pending.getContent().append(text.getContent());
+                return pending;
+            }
+            DiscordSerializer.appendText(stringBuilder, pending, serializerOptions);
+            return text;
+        }
+    }
+}
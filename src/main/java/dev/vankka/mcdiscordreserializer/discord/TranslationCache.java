@@ -0,0 +1,178 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.discord;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.flattener.ComponentFlattener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Caches the {@link MessageFormat}s of translation keys per {@link Locale}, so that the translations of
+ * {@link TranslatableComponent}s are only looked up and compiled once, keeping the most recently used formats up to the maximum size.
+ * <p>
+ * Use {@link #provider(Locale, ComponentFlattener)} as the translatable mapper of the {@link ComponentFlattener}
+ * in the {@link DiscordSerializerOptions}:
+ * <pre>{@code
+ * TranslationCache cache = new TranslationCache(translator::translate, 1000);
+ * DiscordSerializerOptions options = DiscordSerializerOptions.defaults();
+ * options = options.withFlattener(
+ *         options.getFlattener().toBuilder()
+ *                 .mapper(TranslatableComponent.class, cache.provider(Locale.US, options.getFlattener()))
+ *                 .build()
+ * );
+ * }</pre>
+ * This class is thread safe, as long as the format source is.
+ */
+public final class TranslationCache {
+
+    // Cached for keys that don't have a translation, the cache doesn't allow nulls
+    private static final MessageFormat NO_FORMAT = new MessageFormat("");
+
+    private final BiFunction<String, Locale, MessageFormat> formats;
+    private final BoundedCache<Key, MessageFormat> cache;
+
+    /**
+     * Creates a translation cache.
+     *
+     * @param formats the source of translation formats, for example {@code Translator::translate} or a lookup from a
+     *                {@link java.util.ResourceBundle}, returns {@code null} if the key has no translation for the locale
+     * @param maxSize the maximum amount of formats to keep
+     */
+    public TranslationCache(@NotNull BiFunction<String, Locale, MessageFormat> formats, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.formats = formats;
+        this.cache = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * Gets the translation format for the key and locale, looking it up from the source if it isn't cached.
+     *
+     * @param key the translation key
+     * @param locale the locale
+     * @return the format or {@code null} if the key has no translation for the locale
+     */
+    @Nullable
+    public MessageFormat format(@NotNull String key, @NotNull Locale locale) {
+        MessageFormat format = cache.get(new Key(key, locale), k -> {
+            MessageFormat translation = formats.apply(k.key, k.locale);
+            return translation != null ? translation : NO_FORMAT;
+        });
+        return format != NO_FORMAT ? format : null;
+    }
+
+    /**
+     * Creates a translation provider for the given locale, for the translatable mapper of a {@link ComponentFlattener}.
+     * The arguments of the {@link TranslatableComponent}s are flattened to their text with the default flattener
+     * of the {@link DiscordSerializerOptions}, including translations.
+     * Keys without a translation are converted to their fallback or the key itself.
+     *
+     * @param locale the locale to translate to
+     * @return the translation provider
+     * @see #provider(Locale, ComponentFlattener)
+     */
+    @NotNull
+    public Function<TranslatableComponent, String> provider(@NotNull Locale locale) {
+        return provider(locale, DiscordSerializerOptions.DEFAULT_FLATTENER);
+    }
+
+    /**
+     * Creates a translation provider for the given locale, for the translatable mapper of a {@link ComponentFlattener}.
+     * The arguments of the {@link TranslatableComponent}s are flattened to their text with the given flattener,
+     * including translations. Keys without a translation are converted to their fallback or the key itself.
+     *
+     * @param locale the locale to translate to
+     * @param argumentFlattener the flattener for the arguments, usually the flattener the provider is added to,
+     *                          so that arguments are flattened with the same mappers (for example keybinds)
+     * @return the translation provider
+     */
+    @NotNull
+    public Function<TranslatableComponent, String> provider(@NotNull Locale locale, @NotNull ComponentFlattener argumentFlattener) {
+        return new Provider(locale, argumentFlattener);
+    }
+
+    private class Provider implements Function<TranslatableComponent, String> {
+
+        private final Locale locale;
+        private final ComponentFlattener argumentFlattener;
+
+        private Provider(Locale locale, ComponentFlattener argumentFlattener) {
+            this.locale = locale;
+            this.argumentFlattener = argumentFlattener.toBuilder()
+                    .mapper(TranslatableComponent.class, this)
+                    .build();
+        }
+
+        @Override
+        public String apply(TranslatableComponent component) {
+            MessageFormat format = format(component.key(), locale);
+            if (format == null) {
+                String fallback = component.fallback();
+                return fallback != null ? fallback : component.key();
+            }
+
+            List<Component> args = component.args();
+            Object[] arguments = new Object[args.size()];
+            for (int index = 0; index < arguments.length; index++) {
+                StringBuilder builder = new StringBuilder();
+                argumentFlattener.flatten(args.get(index), builder::append);
+                arguments[index] = builder.toString();
+            }
+
+            // MessageFormats are not thread safe
+            synchronized (format) {
+                return format.format(arguments);
+            }
+        }
+    }
+
+    private static class Key {
+
+        private final String key;
+        private final Locale locale;
+
+        private Key(String key, Locale locale) {
+            this.key = key;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key other = (Key) o;
+            return key.equals(other.key) && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, locale);
+        }
+    }
+}
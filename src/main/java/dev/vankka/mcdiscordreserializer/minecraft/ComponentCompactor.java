@@ -0,0 +1,158 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Removes redundant structure from {@link Component}s without changing how they are displayed, to make them smaller to send.
+ * <ul>
+ *     <li>Styles that a component already inherits from its parents are removed</li>
+ *     <li>Empty text components without a style are replaced with their children</li>
+ *     <li>Adjacent text components with the same style and no children are merged</li>
+ * </ul>
+ *
+ * @see MinecraftSerializerOptions#isOutputCompactionEnabled()
+ */
+public final class ComponentCompactor {
+
+    private static final TextDecoration[] DECORATIONS = TextDecoration.values();
+
+    private ComponentCompactor() {}
+
+    /**
+     * Compacts the given component.
+     *
+     * @param component the component to compact
+     * @return the compacted component, which is the given instance if nothing could be compacted
+     */
+    @NotNull
+    public static Component compact(@NotNull Component component) {
+        Component compacted = compact(component, Style.empty());
+        while (isWrapper(compacted) && compacted.children().size() == 1) {
+            compacted = compacted.children().get(0);
+        }
+        return compacted;
+    }
+
+    private static Component compact(Component component, Style inherited) {
+        Style style = removeInherited(component.style(), inherited);
+        List<Component> children = component.children();
+        if (children.isEmpty()) {
+            return style != component.style() ? component.style(style) : component;
+        }
+
+        Style childInherited = inherited.merge(style);
+        List<Component> compactedChildren = new ArrayList<>(children.size());
+        boolean changed = style != component.style();
+        for (Component child : children) {
+            Component compacted = compact(child, childInherited);
+            if (isWrapper(compacted)) {
+                // Has nothing to inherit, the children can take its place
+                for (Component wrapped : compacted.children()) {
+                    add(compactedChildren, wrapped);
+                }
+                changed = true;
+                continue;
+            }
+
+            changed |= compacted != child;
+            changed |= !add(compactedChildren, compacted);
+        }
+
+        if (!changed) {
+            return component;
+        }
+        return component.style(style).children(compactedChildren);
+    }
+
+    /**
+     * Adds the component to the list, merging it into the last component if possible.
+     *
+     * @return {@code true} if the component was added as is
+     */
+    private static boolean add(List<Component> components, Component component) {
+        if (component instanceof TextComponent && component.children().isEmpty()
+                && ((TextComponent) component).content().isEmpty()) {
+            // Doesn't display anything
+            return false;
+        }
+
+        int last = components.size() - 1;
+        if (last >= 0) {
+            Component previous = components.get(last);
+            if (previous instanceof TextComponent && component instanceof TextComponent
+                    && previous.children().isEmpty() && component.children().isEmpty()
+                    && previous.style().equals(component.style())) {
+                components.set(last, ((TextComponent) previous).content(
+                        ((TextComponent) previous).content() + ((TextComponent) component).content()));
+                return false;
+            }
+        }
+        components.add(component);
+        return true;
+    }
+
+    private static boolean isWrapper(Component component) {
+        return component instanceof TextComponent
+                && ((TextComponent) component).content().isEmpty()
+                && component.style().isEmpty();
+    }
+
+    /**
+     * Removes the parts of the style that are the same as the inherited style.
+     */
+    private static Style removeInherited(Style style, Style inherited) {
+        if (style.isEmpty() || inherited.isEmpty()) {
+            return style;
+        }
+
+        Style.Builder builder = null;
+        if (style.color() != null && style.color().equals(inherited.color())) {
+            builder = style.toBuilder().color(null);
+        }
+        for (TextDecoration decoration : DECORATIONS) {
+            TextDecoration.State state = style.decoration(decoration);
+            if (state != TextDecoration.State.NOT_SET && state == inherited.decoration(decoration)) {
+                builder = (builder != null ? builder : style.toBuilder()).decoration(decoration, TextDecoration.State.NOT_SET);
+            }
+        }
+        if (style.clickEvent() != null && style.clickEvent().equals(inherited.clickEvent())) {
+            builder = (builder != null ? builder : style.toBuilder()).clickEvent(null);
+        }
+        if (style.hoverEvent() != null && style.hoverEvent().equals(inherited.hoverEvent())) {
+            builder = (builder != null ? builder : style.toBuilder()).hoverEvent(null);
+        }
+        if (style.insertion() != null && style.insertion().equals(inherited.insertion())) {
+            builder = (builder != null ? builder : style.toBuilder()).insertion(null);
+        }
+        if (style.font() != null && Objects.equals(style.font(), inherited.font())) {
+            builder = (builder != null ? builder : style.toBuilder()).font(null);
+        }
+        return builder != null ? builder.build() : style;
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes Minecraft chat JSON directly to an {@link Appendable},
+ * in the same format as adventure's {@code GsonComponentSerializer} without creating {@link Component}s.
+ * <p>
+ * Components are opened with {@link #beginComponent(Style)} and closed with {@link #endComponent(CharSequence)},
+ * components written in between are the children of the open component.
+ * The text of a component is given when it is closed, because it's written after the children.
+ * <p>
+ * Exceptions from the {@link Appendable} are thrown as {@link UncheckedIOException}s. Writers are not thread safe.
+ *
+ * @see MinecraftSerializer#serializeJson(String, MinecraftSerializerOptions, Appendable)
+ * @see dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftJsonRenderer
+ */
+public final class MinecraftJsonWriter {
+
+    /**
+     * The decorations in the order they are serialized in.
+     */
+    private static final TextDecoration[] DECORATIONS = {
+            TextDecoration.BOLD,
+            TextDecoration.ITALIC,
+            TextDecoration.UNDERLINED,
+            TextDecoration.STRIKETHROUGH,
+            TextDecoration.OBFUSCATED
+    };
+    private static final String[] DECORATION_NAMES = {"bold", "italic", "underlined", "strikethrough", "obfuscated"};
+
+    /**
+     * Escapes for ASCII characters, the same as Gson's html safe escapes.
+     */
+    private static final String[] ESCAPES = new String[128];
+
+    static {
+        for (int character = 0; character < 0x20; character++) {
+            ESCAPES[character] = String.format("\\u%04x", character);
+        }
+        ESCAPES['"'] = "\\\"";
+        ESCAPES['\\'] = "\\\\";
+        ESCAPES['\t'] = "\\t";
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\r'] = "\\r";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['<'] = "\\u003c";
+        ESCAPES['>'] = "\\u003e";
+        ESCAPES['&'] = "\\u0026";
+        ESCAPES['='] = "\\u003d";
+        ESCAPES['\''] = "\\u0027";
+    }
+
+    private Appendable out;
+    private final List<Appendable> capturedOutputs = new ArrayList<>();
+
+    // The state of the open components, indexed by depth
+    private boolean[] hasFields = new boolean[8];
+    private int[] childCounts = new int[8];
+    private boolean[] captures = new boolean[8];
+    private int depth;
+
+    private Component linePrefix;
+
+    /**
+     * Creates a writer that writes to the given {@link Appendable}.
+     * @param out the appendable to write the JSON to
+     */
+    public MinecraftJsonWriter(@NotNull Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Opens a component with the given style, as a child if a component is already open.
+     *
+     * @param style the style of the component
+     * @return this writer
+     */
+    @NotNull
+    public MinecraftJsonWriter beginComponent(@NotNull Style style) {
+        return beginComponent(style, null);
+    }
+
+    /**
+     * Opens a component with the given style and a {@code show_text} hover event,
+     * as a child if a component is already open.
+     *
+     * @param style the style of the component, the hover event of the style is ignored if {@code hoverChildren} is given
+     * @param hoverChildren the children of the hover text from {@link #stopCapture()},
+     *                      or {@code null} to use the hover event of the style
+     * @return this writer
+     */
+    @NotNull
+    public MinecraftJsonWriter beginComponent(@NotNull Style style, @Nullable CharSequence hoverChildren) {
+        beginChild();
+        write('{');
+        boolean fields = writeStyle(style, hoverChildren);
+        push(fields, false);
+        return this;
+    }
+
+    /**
+     * Closes the current component.
+     *
+     * @param text the text of the component
+     * @return this writer
+     * @throws IllegalStateException if there is no open component
+     */
+    @NotNull
+    public MinecraftJsonWriter endComponent(@NotNull CharSequence text) {
+        int level = depth - 1;
+        if (level < 0 || captures[level]) {
+            throw new IllegalStateException("No component to end");
+        }
+
+        if (childCounts[level] > 0) {
+            write(']');
+        }
+        name(hasFields[level], "text");
+        writeString(text);
+        write('}');
+        depth--;
+        return this;
+    }
+
+    /**
+     * Writes a component without a style or children, as a child if a component is open.
+     *
+     * @param text the text of the component
+     * @return this writer
+     */
+    @NotNull
+    public MinecraftJsonWriter text(@NotNull CharSequence text) {
+        beginChild();
+        write("{\"text\":");
+        writeString(text);
+        write('}');
+        return this;
+    }
+
+    /**
+     * Writes a {@link Component}, as a child if a component is open.
+     *
+     * @param component the component, which must only be made of {@link TextComponent}s
+     * @return this writer
+     * @throws IllegalArgumentException if the component contains other components than {@link TextComponent}s
+     * or hover events other than {@code show_text}
+     */
+    @NotNull
+    public MinecraftJsonWriter component(@NotNull Component component) {
+        beginChild();
+        writeComponent(component);
+        return this;
+    }
+
+    /**
+     * Writes the given children from {@link #stopCapture()} into the current component.
+     *
+     * @param children the children
+     * @return this writer
+     */
+    @NotNull
+    public MinecraftJsonWriter children(@NotNull CharSequence children) {
+        if (children.length() > 0) {
+            beginChild();
+            write(children);
+        }
+        return this;
+    }
+
+    /**
+     * Starts capturing the components that are written into a separate buffer instead of the output,
+     * until {@link #stopCapture()} is called. This allows writing the same components more than once.
+     *
+     * @return this writer
+     */
+    @NotNull
+    public MinecraftJsonWriter startCapture() {
+        capturedOutputs.add(out);
+        out = new StringBuilder();
+        push(false, true);
+        return this;
+    }
+
+    /**
+     * Stops capturing components started with {@link #startCapture()},
+     * the captured components can be written with {@link #children(CharSequence)}.
+     *
+     * @return the captured components, empty if none were written
+     * @throws IllegalStateException if there is no capture or a component opened during the capture is not ended
+     */
+    @NotNull
+    public String stopCapture() {
+        int level = depth - 1;
+        if (level < 0 || !captures[level]) {
+            throw new IllegalStateException("No capture to stop");
+        }
+
+        String captured = out.toString();
+        out = capturedOutputs.remove(capturedOutputs.size() - 1);
+        depth--;
+        return captured;
+    }
+
+    /**
+     * The component that is rendered at the start of every line in the current content, like quote prefixes.
+     * @return the line prefix or {@code null} if lines don't start with anything
+     */
+    @Nullable
+    public Component getLinePrefix() {
+        return linePrefix;
+    }
+
+    /**
+     * Sets the component that is rendered at the start of every line, renderers should restore the previous prefix
+     * after rendering their content.
+     *
+     * @param linePrefix the line prefix or {@code null} if lines don't start with anything
+     * @return the previous line prefix
+     */
+    @Nullable
+    public Component setLinePrefix(@Nullable Component linePrefix) {
+        Component previous = this.linePrefix;
+        this.linePrefix = linePrefix;
+        return previous;
+    }
+
+    private void push(boolean fields, boolean capture) {
+        if (depth == hasFields.length) {
+            hasFields = Arrays.copyOf(hasFields, depth * 2);
+            childCounts = Arrays.copyOf(childCounts, depth * 2);
+            captures = Arrays.copyOf(captures, depth * 2);
+        }
+        hasFields[depth] = fields;
+        childCounts[depth] = 0;
+        captures[depth] = capture;
+        depth++;
+    }
+
+    /**
+     * Writes the separator for the next child of the open component, opening the "extra" array for the first child.
+     */
+    private void beginChild() {
+        int level = depth - 1;
+        if (level < 0) {
+            return;
+        }
+
+        if (childCounts[level]++ > 0) {
+            write(',');
+        } else if (!captures[level]) {
+            name(hasFields[level], "extra");
+            write('[');
+            hasFields[level] = true;
+        }
+    }
+
+    private void writeComponent(Component component) {
+        if (!(component instanceof TextComponent)) {
+            throw new IllegalArgumentException("Only text components can be written: " + component);
+        }
+
+        write('{');
+        boolean fields = writeStyle(component.style(), null);
+        List<Component> children = component.children();
+        if (!children.isEmpty()) {
+            fields = name(fields, "extra");
+            write('[');
+            for (int index = 0; index < children.size(); index++) {
+                if (index > 0) {
+                    write(',');
+                }
+                writeComponent(children.get(index));
+            }
+            write(']');
+        }
+        name(fields, "text");
+        writeString(((TextComponent) component).content());
+        write('}');
+    }
+
+    private boolean writeStyle(Style style, CharSequence hoverChildren) {
+        boolean fields = false;
+        for (int index = 0; index < DECORATIONS.length; index++) {
+            TextDecoration.State state = style.decoration(DECORATIONS[index]);
+            if (state != TextDecoration.State.NOT_SET) {
+                fields = name(fields, DECORATION_NAMES[index]);
+                write(state == TextDecoration.State.TRUE ? "true" : "false");
+            }
+        }
+
+        TextColor color = style.color();
+        if (color != null) {
+            fields = name(fields, "color");
+            writeString(color instanceof NamedTextColor
+                    ? Objects.requireNonNull(NamedTextColor.NAMES.key((NamedTextColor) color))
+                    : color.asHexString());
+        }
+
+        String insertion = style.insertion();
+        if (insertion != null) {
+            fields = name(fields, "insertion");
+            writeString(insertion);
+        }
+
+        ClickEvent clickEvent = style.clickEvent();
+        if (clickEvent != null) {
+            fields = name(fields, "clickEvent");
+            write("{\"action\":");
+            writeString(Objects.requireNonNull(ClickEvent.Action.NAMES.key(clickEvent.action())));
+            write(",\"value\":");
+            writeString(clickEvent.value());
+            write('}');
+        }
+
+        HoverEvent<?> hoverEvent = style.hoverEvent();
+        if (hoverChildren != null) {
+            fields = name(fields, "hoverEvent");
+            write("{\"action\":\"show_text\",\"contents\":{");
+            if (hoverChildren.length() > 0) {
+                write("\"extra\":[");
+                write(hoverChildren);
+                write("],");
+            }
+            write("\"text\":\"\"}}");
+        } else if (hoverEvent != null) {
+            if (hoverEvent.action() != HoverEvent.Action.SHOW_TEXT) {
+                throw new IllegalArgumentException("Only show_text hover events can be written: " + hoverEvent);
+            }
+            fields = name(fields, "hoverEvent");
+            write("{\"action\":\"show_text\",\"contents\":");
+            writeComponent((Component) hoverEvent.value());
+            write('}');
+        }
+
+        Key font = style.font();
+        if (font != null) {
+            fields = name(fields, "font");
+            writeString(font.asString());
+        }
+        return fields;
+    }
+
+    private boolean name(boolean fields, String name) {
+        if (fields) {
+            write(',');
+        }
+        write('"');
+        write(name);
+        write("\":");
+        return true;
+    }
+
+    private void writeString(CharSequence value) {
+        write('"');
+        int length = value.length();
+        int start = 0;
+        for (int index = 0; index < length; index++) {
+            char character = value.charAt(index);
+            String escape;
+            if (character < ESCAPES.length) {
+                escape = ESCAPES[character];
+            } else if (character == '\u2028') {
+                escape = "\\u2028";
+            } else if (character == '\u2029') {
+                escape = "\\u2029";
+            } else {
+                continue;
+            }
+            if (escape == null) {
+                continue;
+            }
+
+            if (start < index) {
+                write(value, start, index);
+            }
+            write(escape);
+            start = index + 1;
+        }
+        if (start < length) {
+            write(value, start, length);
+        }
+        write('"');
+    }
+
+    private void write(char character) {
+        try {
+            out.append(character);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(CharSequence text) {
+        try {
+            out.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(CharSequence text, int start, int end) {
+        try {
+            out.append(text, start, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
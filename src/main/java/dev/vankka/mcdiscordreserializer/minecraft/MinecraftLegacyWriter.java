@@ -0,0 +1,286 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Writes legacy formatted text (with section sign formatting codes) directly to an {@link Appendable}, without creating {@link Component}s.
+ * <p>
+ * Styles are pushed with {@link #pushStyle(Style)} and popped with {@link #popStyle()}, text is written with the
+ * styles that are pushed at that time. Formatting codes are only written when the text's formatting is different from
+ * the last written text's formatting, with as few codes as possible. Colors are written as the nearest named color,
+ * click events, hover events, insertions and fonts are not written.
+ * <p>
+ * Exceptions from the {@link Appendable} are thrown as {@link UncheckedIOException}s. Writers are not thread safe.
+ *
+ * @see MinecraftSerializer#serializeLegacy(String, MinecraftSerializerOptions, Appendable)
+ * @see dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftLegacyRenderer
+ */
+public final class MinecraftLegacyWriter {
+
+    /**
+     * The section sign, the character Minecraft uses for formatting codes.
+     */
+    public static final char SECTION_CHAR = '\u00A7';
+
+    private static final NamedTextColor[] COLORS = {
+            NamedTextColor.BLACK,
+            NamedTextColor.DARK_BLUE,
+            NamedTextColor.DARK_GREEN,
+            NamedTextColor.DARK_AQUA,
+            NamedTextColor.DARK_RED,
+            NamedTextColor.DARK_PURPLE,
+            NamedTextColor.GOLD,
+            NamedTextColor.GRAY,
+            NamedTextColor.DARK_GRAY,
+            NamedTextColor.BLUE,
+            NamedTextColor.GREEN,
+            NamedTextColor.AQUA,
+            NamedTextColor.RED,
+            NamedTextColor.LIGHT_PURPLE,
+            NamedTextColor.YELLOW,
+            NamedTextColor.WHITE
+    };
+    private static final char[] COLOR_CODES = "0123456789abcdef".toCharArray();
+
+    private static final TextDecoration[] DECORATIONS = {
+            TextDecoration.OBFUSCATED,
+            TextDecoration.BOLD,
+            TextDecoration.STRIKETHROUGH,
+            TextDecoration.UNDERLINED,
+            TextDecoration.ITALIC
+    };
+    private static final char[] DECORATION_CODES = "klmno".toCharArray();
+    private static final char RESET_CODE = 'r';
+
+    private static final int NO_COLOR = -1;
+
+    private final Appendable out;
+    private final char character;
+
+    // The pushed styles, as a color index and decoration bits (indexed by DECORATIONS), indexed by depth
+    private int[] colors = new int[8];
+    private int[] decorations = new int[8];
+    private int depth;
+
+    // The formatting of the last written text
+    private int writtenColor = NO_COLOR;
+    private int writtenDecorations;
+
+    private Component linePrefix;
+
+    /**
+     * Creates a writer that writes to the given {@link Appendable} with {@link #SECTION_CHAR}.
+     * @param out the appendable to write the text to
+     */
+    public MinecraftLegacyWriter(@NotNull Appendable out) {
+        this(out, SECTION_CHAR);
+    }
+
+    /**
+     * Creates a writer that writes to the given {@link Appendable}.
+     * @param out the appendable to write the text to
+     * @param character the character for formatting codes, for example {@code &}
+     */
+    public MinecraftLegacyWriter(@NotNull Appendable out, char character) {
+        this.out = out;
+        this.character = character;
+        colors[0] = NO_COLOR;
+    }
+
+    /**
+     * Pushes a style on top of the current style, which is used for text until it is popped.
+     *
+     * @param style the style, only the color and decorations are used
+     * @return this writer
+     */
+    @NotNull
+    public MinecraftLegacyWriter pushStyle(@NotNull Style style) {
+        int color = colors[depth];
+        int decorationBits = decorations[depth];
+        if (!style.isEmpty()) {
+            TextColor textColor = style.color();
+            if (textColor != null) {
+                color = colorIndex(textColor);
+            }
+            for (int index = 0; index < DECORATIONS.length; index++) {
+                TextDecoration.State state = style.decoration(DECORATIONS[index]);
+                if (state == TextDecoration.State.TRUE) {
+                    decorationBits |= 1 << index;
+                } else if (state == TextDecoration.State.FALSE) {
+                    decorationBits &= ~(1 << index);
+                }
+            }
+        }
+
+        if (++depth == colors.length) {
+            colors = Arrays.copyOf(colors, depth * 2);
+            decorations = Arrays.copyOf(decorations, depth * 2);
+        }
+        colors[depth] = color;
+        decorations[depth] = decorationBits;
+        return this;
+    }
+
+    /**
+     * Pops the last style pushed with {@link #pushStyle(Style)}.
+     *
+     * @return this writer
+     * @throws IllegalStateException if there is no style to pop
+     */
+    @NotNull
+    public MinecraftLegacyWriter popStyle() {
+        if (depth == 0) {
+            throw new IllegalStateException("No style to pop");
+        }
+        depth--;
+        return this;
+    }
+
+    /**
+     * Writes text with the current style.
+     *
+     * @param text the text
+     * @return this writer
+     */
+    @NotNull
+    public MinecraftLegacyWriter text(@NotNull CharSequence text) {
+        return text(text, 0, text.length());
+    }
+
+    /**
+     * Writes part of the given text with the current style.
+     *
+     * @param text the text
+     * @param start the start index of the part, inclusive
+     * @param end the end index of the part, exclusive
+     * @return this writer
+     */
+    @NotNull
+    public MinecraftLegacyWriter text(@NotNull CharSequence text, int start, int end) {
+        if (start == end) {
+            return this;
+        }
+
+        writeFormatting();
+        try {
+            out.append(text, start, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a {@link Component} on top of the current style.
+     *
+     * @param component the component, only the content of {@link TextComponent}s is written
+     * @return this writer
+     */
+    @NotNull
+    public MinecraftLegacyWriter component(@NotNull Component component) {
+        pushStyle(component.style());
+        if (component instanceof TextComponent) {
+            text(((TextComponent) component).content());
+        }
+        for (Component child : component.children()) {
+            component(child);
+        }
+        return popStyle();
+    }
+
+    /**
+     * The component that is rendered at the start of every line in the current content, like quote prefixes.
+     * @return the line prefix or {@code null} if lines don't start with anything
+     */
+    @Nullable
+    public Component getLinePrefix() {
+        return linePrefix;
+    }
+
+    /**
+     * Sets the component that is rendered at the start of every line, renderers should restore the previous prefix
+     * after rendering their content.
+     *
+     * @param linePrefix the line prefix or {@code null} if lines don't start with anything
+     * @return the previous line prefix
+     */
+    @Nullable
+    public Component setLinePrefix(@Nullable Component linePrefix) {
+        Component previous = this.linePrefix;
+        this.linePrefix = linePrefix;
+        return previous;
+    }
+
+    /**
+     * Writes the codes to go from the formatting of the last written text to the current style.
+     * Decorations can only be removed by a color code or reset, which also remove all other decorations.
+     */
+    private void writeFormatting() {
+        int color = colors[depth];
+        int decorationBits = decorations[depth];
+        if (color == writtenColor && decorationBits == writtenDecorations) {
+            return;
+        }
+
+        int addedDecorations = decorationBits;
+        if (color != writtenColor || (writtenDecorations & ~decorationBits) != 0) {
+            writeCode(color != NO_COLOR ? COLOR_CODES[color] : RESET_CODE);
+        } else {
+            addedDecorations &= ~writtenDecorations;
+        }
+        for (int index = 0; index < DECORATION_CODES.length; index++) {
+            if ((addedDecorations & (1 << index)) != 0) {
+                writeCode(DECORATION_CODES[index]);
+            }
+        }
+        writtenColor = color;
+        writtenDecorations = decorationBits;
+    }
+
+    private void writeCode(char code) {
+        try {
+            out.append(character).append(code);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int colorIndex(TextColor color) {
+        NamedTextColor named = color instanceof NamedTextColor ? (NamedTextColor) color : NamedTextColor.nearestTo(color);
+        for (int index = 0; index < COLORS.length; index++) {
+            if (COLORS[index] == named) {
+                return index;
+            }
+        }
+        return NO_COLOR;
+    }
+}
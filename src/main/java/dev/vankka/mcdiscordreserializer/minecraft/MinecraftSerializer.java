@@ -18,18 +18,34 @@
 
 package dev.vankka.mcdiscordreserializer.minecraft;
 
+import dev.vankka.mcdiscordreserializer.renderer.MinecraftRenderer;
 import dev.vankka.mcdiscordreserializer.renderer.NodeRenderer;
+import dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftJsonRenderer;
+import dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftLegacyRenderer;
 import dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftRenderer;
+import dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultPlainTextRenderer;
+import dev.vankka.mcdiscordreserializer.rules.CharScanner;
+import dev.vankka.mcdiscordreserializer.rules.CompactAst;
+import dev.vankka.mcdiscordreserializer.rules.DiscordBlockParser;
+import dev.vankka.mcdiscordreserializer.rules.NodeKind;
+import dev.vankka.mcdiscordreserializer.rules.StyleNode;
+import dev.vankka.mcdiscordreserializer.rules.TextSlice;
+import dev.vankka.mcdiscordreserializer.rules.TextSliceNode;
 import dev.vankka.simpleast.core.node.Node;
 import dev.vankka.simpleast.core.node.TextNode;
-import dev.vankka.simpleast.core.parser.Parser;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * MinecraftSerializer, for serializing from Discord messages to Minecraft {@link Component}s.
@@ -113,38 +129,855 @@ public class MinecraftSerializer {
      */
     @NotNull
     public Component serialize(@NotNull final String discordMessage, @NotNull final MinecraftSerializerOptions<Component> serializerOptions) {
+        return render(parseNodes(discordMessage, serializerOptions), serializerOptions);
+    }
+
+    /**
+     * Parses Discord formatting (markdown) using this serializer's
+     * {@link MinecraftSerializer#getDefaultOptions() default options}.
+     *
+     * @param discordMessage a Discord markdown message
+     * @return the parsed message
+     * @see #serialize(ParsedMessage, MinecraftSerializerOptions)
+     */
+    @NotNull
+    public ParsedMessage parse(@NotNull final String discordMessage) {
+        return parse(discordMessage, getDefaultOptions());
+    }
+
+    /**
+     * Parses Discord formatting (markdown), the parsed message can then be serialized with different options
+     * (for example for different audiences) without parsing the message again.
+     *
+     * @param discordMessage    a Discord markdown message
+     * @param serializerOptions The options to use for parsing, only the parser, rules and block parsing options are used
+     * @return the parsed message
+     * @see #serialize(ParsedMessage, MinecraftSerializerOptions)
+     */
+    @NotNull
+    public ParsedMessage parse(@NotNull final String discordMessage, @NotNull final MinecraftSerializerOptions<Component> serializerOptions) {
+        boolean debug = serializerOptions.isDebuggingEnabled();
+        return parse(
+                discordMessage,
+                serializerOptions.getParserPool(),
+                textOnly(serializerOptions.getParserPool(), debug),
+                serializerOptions.isBlockParsingEnabled(),
+                debug
+        );
+    }
+
+    /**
+     * Parses with the parsing options resolved beforehand, see {@link MinecraftSerializerPipeline}.
+     */
+    static ParsedMessage parse(String discordMessage, ParserPool parserPool, boolean textOnly, boolean blockParsing, boolean debug) {
+        if (!blockParsing) {
+            return new ParsedMessage(discordMessage, parseNodes(discordMessage, parserPool, textOnly, false, debug));
+        }
+
+        List<DiscordBlockParser.Block> blocks = DiscordBlockParser.scan(discordMessage);
+        return new ParsedMessage(
+                discordMessage,
+                blocks,
+                parseBlocks(discordMessage, blocks, 0, blocks.size(), parserPool, debug),
+                parserPool
+        );
+    }
+
+    /**
+     * Parses an edit of a Discord message using this serializer's {@link MinecraftSerializer#getDefaultOptions() default options},
+     * reusing the unchanged parts of the previous version of the message if the default options have
+     * {@link MinecraftSerializerOptions#isBlockParsingEnabled() block parsing} enabled.
+     *
+     * @param previous the previous version of the message, parsed with the same options
+     * @param discordMessage the new version of the Discord markdown message
+     * @return the parsed message
+     * @see #parse(ParsedMessage, String, MinecraftSerializerOptions)
+     */
+    @NotNull
+    public ParsedMessage parse(@NotNull final ParsedMessage previous, @NotNull final String discordMessage) {
+        return parse(previous, discordMessage, getDefaultOptions());
+    }
+
+    /**
+     * Parses an edit of a Discord message, reusing the unchanged parts of the previous version of the message.
+     * <p>
+     * The blocks (code blocks, quotes and the text between them) that are the same at the start and end of both versions
+     * keep their nodes, only the blocks in between are parsed. The message is parsed entirely if the previous version
+     * wasn't parsed with block parsing or was parsed with different rules.
+     *
+     * @param previous the previous version of the message
+     * @param discordMessage the new version of the Discord markdown message
+     * @param serializerOptions The options to use for parsing, only the parser, rules and block parsing options are used
+     * @return the parsed message
+     */
+    @NotNull
+    public ParsedMessage parse(
+            @NotNull final ParsedMessage previous,
+            @NotNull final String discordMessage,
+            @NotNull final MinecraftSerializerOptions<Component> serializerOptions
+    ) {
+        List<DiscordBlockParser.Block> previousBlocks = previous.getBlocks();
+        if (previousBlocks == null
+                || !serializerOptions.isBlockParsingEnabled()
+                || previous.getParserPool() != serializerOptions.getParserPool()) {
+            return parse(discordMessage, serializerOptions);
+        }
+        String previousMessage = previous.getMessage();
+        if (previousMessage.equals(discordMessage)) {
+            return previous;
+        }
+
+        List<DiscordBlockParser.Block> blocks = DiscordBlockParser.scan(discordMessage);
+        int maxCommon = Math.min(previousBlocks.size(), blocks.size());
+        int prefix = 0;
+        while (prefix < maxCommon
+                && sameBlock(previousMessage, previousBlocks.get(prefix), discordMessage, blocks.get(prefix), 0)) {
+            prefix++;
+        }
+        int offset = discordMessage.length() - previousMessage.length();
+        int suffix = 0;
+        while (suffix < maxCommon - prefix
+                && sameBlock(
+                        previousMessage, previousBlocks.get(previousBlocks.size() - 1 - suffix),
+                        discordMessage, blocks.get(blocks.size() - 1 - suffix),
+                        offset
+                )) {
+            suffix++;
+        }
+
+        List<List<Node<Object>>> previousBlockNodes = previous.getBlockNodes();
+        List<List<Node<Object>>> blockNodes = new ArrayList<>(blocks.size());
+        blockNodes.addAll(previousBlockNodes.subList(0, prefix));
+        blockNodes.addAll(parseBlocks(
+                discordMessage, blocks, prefix, blocks.size() - suffix,
+                serializerOptions.getParserPool(), serializerOptions.isDebuggingEnabled()
+        ));
+        blockNodes.addAll(previousBlockNodes.subList(previousBlockNodes.size() - suffix, previousBlockNodes.size()));
+        return new ParsedMessage(discordMessage, blocks, blockNodes, serializerOptions.getParserPool());
+    }
+
+    /**
+     * Checks if the blocks have the same type and content, with the second block being moved by the given offset.
+     */
+    private static boolean sameBlock(
+            String source,
+            DiscordBlockParser.Block block,
+            String otherSource,
+            DiscordBlockParser.Block otherBlock,
+            int offset
+    ) {
+        return block.getType() == otherBlock.getType()
+                && block.getStart() + offset == otherBlock.getStart()
+                && block.getEnd() + offset == otherBlock.getEnd()
+                && source.regionMatches(block.getStart(), otherSource, otherBlock.getStart(), block.getEnd() - block.getStart());
+    }
+
+    /**
+     * Parses the blocks from the start index (inclusive) to the end index (exclusive) separately.
+     */
+    private static List<List<Node<Object>>> parseBlocks(
+            String discordMessage,
+            List<DiscordBlockParser.Block> blocks,
+            int from,
+            int to,
+            ParserPool parserPool,
+            boolean debug
+    ) {
+        return parserPool.parse((parser, rules) -> {
+            List<List<Node<Object>>> blockNodes = new ArrayList<>(to - from);
+            for (int index = from; index < to; index++) {
+                List<Node<Object>> nodes = DiscordBlockParser.parseBlock(discordMessage, blocks.get(index), parser, rules, debug);
+                blockNodes.add(flattenTextNodes(nodes)); // reduce the amount of single character nodes caused by special characters
+            }
+            return blockNodes;
+        });
+    }
+
+    /**
+     * Serializes a parsed Discord message to a Minecraft {@link Component} using this serializer's
+     * {@link MinecraftSerializer#getDefaultOptions() default options}.
+     *
+     * @param message the parsed Discord message
+     * @return the Discord message formatted to a Minecraft TextComponent
+     * @see #parse(String)
+     */
+    @NotNull
+    public Component serialize(@NotNull final ParsedMessage message) {
+        return serialize(message, getDefaultOptions());
+    }
+
+    /**
+     * Serializes a parsed Discord message to a Minecraft {@link Component}.
+     *
+     * @param message           the parsed Discord message
+     * @param serializerOptions The options to use for this serialization, the parsing options are not used
+     * @return the Discord message formatted to a Minecraft TextComponent
+     * @see #parse(String, MinecraftSerializerOptions)
+     */
+    @NotNull
+    public Component serialize(@NotNull final ParsedMessage message, @NotNull final MinecraftSerializerOptions<Component> serializerOptions) {
+        return render(message.getNodes(), serializerOptions);
+    }
+
+    /**
+     * Parses Discord formatting (markdown) into a {@link CompactAst} using this serializer's
+     * {@link MinecraftSerializer#getDefaultOptions() default options}.
+     *
+     * @param discordMessage a Discord markdown message
+     * @return the parsed message
+     * @see #serialize(CompactAst, MinecraftSerializerOptions)
+     */
+    @NotNull
+    public CompactAst parseCompact(@NotNull final String discordMessage) {
+        return parseCompact(discordMessage, getDefaultOptions());
+    }
+
+    /**
+     * Parses Discord formatting (markdown) into a {@link CompactAst}, which takes less memory to keep around than nodes.
+     * <p>
+     * This is a retained-size form only: the message is parsed into nodes as usual and then copied into the arrays,
+     * so parsing allocates more than {@link #parse(String, MinecraftSerializerOptions)}. Use it for messages that are
+     * kept around (for example chat history), not to reduce allocations while parsing.
+     *
+     * @param discordMessage    a Discord markdown message
+     * @param serializerOptions The options to use for parsing
+     * @return the parsed message
+     * @see #serialize(CompactAst, MinecraftSerializerOptions)
+     */
+    @NotNull
+    public CompactAst parseCompact(@NotNull final String discordMessage, @NotNull final MinecraftSerializerOptions<Component> serializerOptions) {
+        return CompactAst.of(parseNodes(discordMessage, serializerOptions));
+    }
+
+    /**
+     * Serializes a parsed Discord message to a Minecraft {@link Component}.
+     * <p>
+     * When no renderers are configured the message is rendered directly from the {@link CompactAst} without creating nodes,
+     * otherwise nodes are created with {@link CompactAst#toNodes()} for the renderers.
+     *
+     * @param message           the parsed Discord message
+     * @param serializerOptions The options to use for this serialization
+     * @return the Discord message formatted to a Minecraft TextComponent
+     * @see #parseCompact(String, MinecraftSerializerOptions)
+     */
+    @NotNull
+    public Component serialize(@NotNull final CompactAst message, @NotNull final MinecraftSerializerOptions<Component> serializerOptions) {
+        if (!serializerOptions.getRenderers().isEmpty()) {
+            return render(message.toNodes(), serializerOptions);
+        }
+
         List<Component> components = new ArrayList<>();
+        CompactAst.Cursor cursor = message.cursor();
+        if (cursor.firstChild()) {
+            do {
+                components.add(renderCompact(cursor, serializerOptions, DefaultMinecraftRenderer.INSTANCE, null, null));
+            } while (cursor.nextSibling());
+        }
+        return join(components, serializerOptions);
+    }
 
-        Parser<Object, Node<Object>, Object> parser = serializerOptions.getParser();
-        List<Node<Object>> nodes;
-        synchronized (parser) {
-            nodes = parser.parse(discordMessage, null, serializerOptions.getRules(), serializerOptions.isDebuggingEnabled());
+    /**
+     * Serializes Discord formatting (markdown) to Minecraft chat JSON using the parsing options of this serializer's
+     * {@link MinecraftSerializer#getDefaultOptions() default options}.
+     *
+     * @param discordMessage a Discord markdown message
+     * @return the Discord message formatted to Minecraft chat JSON
+     * @see #serializeJson(String, MinecraftSerializerOptions, Appendable)
+     */
+    @NotNull
+    public String serializeJson(@NotNull final String discordMessage) {
+        StringBuilder builder = new StringBuilder(discordMessage.length() * 2);
+        try {
+            serializeJson(discordMessage, getDefaultOptions().withRenderers(Collections.emptyList()), builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return builder.toString();
+    }
+
+    /**
+     * Serializes Discord formatting (markdown) to Minecraft chat JSON, written directly to the given {@link Appendable}
+     * without creating {@link Component}s. With the {@link DefaultMinecraftJsonRenderer} this is the same JSON as
+     * serializing the result of {@link #serialize(String, MinecraftSerializerOptions)} with adventure's {@code GsonComponentSerializer}.
+     * <p>
+     * The renderers in the options render their nodes and the children of their nodes, output compaction is not applied.
+     *
+     * @param discordMessage    a Discord markdown message
+     * @param serializerOptions The options to use for this serialization
+     * @param appendable        the appendable to write the JSON to
+     * @throws IOException if the appendable throws an exception
+     * @see MinecraftSerializerOptions#withRenderers(List)
+     * @see MinecraftJsonWriter
+     */
+    public void serializeJson(
+            @NotNull final String discordMessage,
+            @NotNull final MinecraftSerializerOptions<MinecraftJsonWriter> serializerOptions,
+            @NotNull final Appendable appendable
+    ) throws IOException {
+        renderJson(parseNodes(discordMessage, serializerOptions), serializerOptions, appendable);
+    }
+
+    /**
+     * Serializes a parsed Discord message to Minecraft chat JSON, written directly to the given {@link Appendable}.
+     *
+     * @param message           the parsed Discord message
+     * @param serializerOptions The options to use for this serialization, the parsing options are not used
+     * @param appendable        the appendable to write the JSON to
+     * @throws IOException if the appendable throws an exception
+     * @see #serializeJson(String, MinecraftSerializerOptions, Appendable)
+     */
+    public void serializeJson(
+            @NotNull final ParsedMessage message,
+            @NotNull final MinecraftSerializerOptions<MinecraftJsonWriter> serializerOptions,
+            @NotNull final Appendable appendable
+    ) throws IOException {
+        renderJson(message.getNodes(), serializerOptions, appendable);
+    }
+
+    private static void renderJson(
+            List<Node<Object>> nodes,
+            MinecraftSerializerOptions<MinecraftJsonWriter> serializerOptions,
+            Appendable appendable
+    ) throws IOException {
+        MinecraftJsonWriter writer = new MinecraftJsonWriter(appendable);
+        StreamRenderContext<MinecraftJsonWriter> context =
+                new StreamRenderContext<>(writer, serializerOptions, DefaultMinecraftJsonRenderer.INSTANCE);
+        try {
+            if (nodes.size() == 1) {
+                context.apply(nodes.get(0));
+                return;
+            }
+
+            writer.beginComponent(Style.empty());
+            for (Node<Object> node : nodes) {
+                context.apply(node);
+            }
+            writer.endComponent("");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Serializes Discord formatting (markdown) to legacy formatted text (with section sign formatting codes)
+     * using the parsing options of this serializer's {@link MinecraftSerializer#getDefaultOptions() default options}.
+     *
+     * @param discordMessage a Discord markdown message
+     * @return the Discord message formatted to legacy text
+     * @see #serializeLegacy(String, MinecraftSerializerOptions, Appendable)
+     */
+    @NotNull
+    public String serializeLegacy(@NotNull final String discordMessage) {
+        StringBuilder builder = new StringBuilder(discordMessage.length() + 16);
+        try {
+            serializeLegacy(discordMessage, getDefaultOptions().withRenderers(Collections.emptyList()), builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Serializes Discord formatting (markdown) to legacy formatted text, written directly to the given {@link Appendable}
+     * without creating {@link Component}s. With the {@link DefaultMinecraftLegacyRenderer} the text and formatting is the same as
+     * the result of {@link #serialize(String, MinecraftSerializerOptions)}, with as few formatting codes as possible.
+     * <p>
+     * The renderers in the options render their nodes and the children of their nodes.
+     *
+     * @param discordMessage    a Discord markdown message
+     * @param serializerOptions The options to use for this serialization
+     * @param appendable        the appendable to write the text to
+     * @throws IOException if the appendable throws an exception
+     * @see MinecraftSerializerOptions#withRenderers(List)
+     * @see MinecraftLegacyWriter
+     */
+    public void serializeLegacy(
+            @NotNull final String discordMessage,
+            @NotNull final MinecraftSerializerOptions<MinecraftLegacyWriter> serializerOptions,
+            @NotNull final Appendable appendable
+    ) throws IOException {
+        renderLegacy(parseNodes(discordMessage, serializerOptions), serializerOptions, appendable);
+    }
+
+    /**
+     * Serializes a parsed Discord message to legacy formatted text, written directly to the given {@link Appendable}.
+     *
+     * @param message           the parsed Discord message
+     * @param serializerOptions The options to use for this serialization, the parsing options are not used
+     * @param appendable        the appendable to write the text to
+     * @throws IOException if the appendable throws an exception
+     * @see #serializeLegacy(String, MinecraftSerializerOptions, Appendable)
+     */
+    public void serializeLegacy(
+            @NotNull final ParsedMessage message,
+            @NotNull final MinecraftSerializerOptions<MinecraftLegacyWriter> serializerOptions,
+            @NotNull final Appendable appendable
+    ) throws IOException {
+        renderLegacy(message.getNodes(), serializerOptions, appendable);
+    }
+
+    private static void renderLegacy(
+            List<Node<Object>> nodes,
+            MinecraftSerializerOptions<MinecraftLegacyWriter> serializerOptions,
+            Appendable appendable
+    ) throws IOException {
+        StreamRenderContext<MinecraftLegacyWriter> context = new StreamRenderContext<>(
+                new MinecraftLegacyWriter(appendable), serializerOptions, DefaultMinecraftLegacyRenderer.INSTANCE);
+        try {
+            for (Node<Object> node : nodes) {
+                context.apply(node);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Serializes Discord formatting (markdown) to plain text without any formatting
+     * using the parsing options of this serializer's {@link MinecraftSerializer#getDefaultOptions() default options}.
+     *
+     * @param discordMessage a Discord markdown message
+     * @return the visible text of the Discord message
+     * @see #serializePlainText(String, MinecraftSerializerOptions, Appendable)
+     */
+    @NotNull
+    public String serializePlainText(@NotNull final String discordMessage) {
+        StringBuilder builder = new StringBuilder(discordMessage.length());
+        try {
+            serializePlainText(discordMessage, getDefaultOptions().withRenderers(Collections.emptyList()), builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Serializes Discord formatting (markdown) to plain text, written directly to the given {@link Appendable}
+     * without creating {@link Component}s. With the {@link DefaultPlainTextRenderer} this is the text of
+     * the result of {@link #serialize(String, MinecraftSerializerOptions)}, add an extended
+     * {@link DefaultPlainTextRenderer} to the options to change how mentions and emotes are written.
+     * <p>
+     * The renderers in the options render their nodes and the children of their nodes.
+     *
+     * @param discordMessage    a Discord markdown message
+     * @param serializerOptions The options to use for this serialization
+     * @param appendable        the appendable to write the text to
+     * @throws IOException if the appendable throws an exception
+     * @see MinecraftSerializerOptions#withRenderers(List)
+     * @see PlainTextWriter
+     */
+    public void serializePlainText(
+            @NotNull final String discordMessage,
+            @NotNull final MinecraftSerializerOptions<PlainTextWriter> serializerOptions,
+            @NotNull final Appendable appendable
+    ) throws IOException {
+        renderPlainText(parseNodes(discordMessage, serializerOptions), serializerOptions, appendable);
+    }
+
+    /**
+     * Serializes a parsed Discord message to plain text, written directly to the given {@link Appendable}.
+     *
+     * @param message           the parsed Discord message
+     * @param serializerOptions The options to use for this serialization, the parsing options are not used
+     * @param appendable        the appendable to write the text to
+     * @throws IOException if the appendable throws an exception
+     * @see #serializePlainText(String, MinecraftSerializerOptions, Appendable)
+     */
+    public void serializePlainText(
+            @NotNull final ParsedMessage message,
+            @NotNull final MinecraftSerializerOptions<PlainTextWriter> serializerOptions,
+            @NotNull final Appendable appendable
+    ) throws IOException {
+        renderPlainText(message.getNodes(), serializerOptions, appendable);
+    }
+
+    private static void renderPlainText(
+            List<Node<Object>> nodes,
+            MinecraftSerializerOptions<PlainTextWriter> serializerOptions,
+            Appendable appendable
+    ) throws IOException {
+        StreamRenderContext<PlainTextWriter> context = new StreamRenderContext<>(
+                new PlainTextWriter(appendable), serializerOptions, DefaultPlainTextRenderer.INSTANCE);
+        try {
+            for (Node<Object> node : nodes) {
+                context.apply(node);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static List<Node<Object>> parseNodes(String discordMessage, MinecraftSerializerOptions<?> serializerOptions) {
+        boolean debug = serializerOptions.isDebuggingEnabled();
+        return parseNodes(
+                discordMessage,
+                serializerOptions.getParserPool(),
+                textOnly(serializerOptions.getParserPool(), debug),
+                serializerOptions.isBlockParsingEnabled(),
+                debug
+        );
+    }
+
+    /**
+     * If messages without any of the {@link CharScanner#MARKDOWN_TRIGGERS} can skip the parser,
+     * which is the case when the parser uses the markdown text rules and isn't debugging.
+     */
+    static boolean textOnly(ParserPool parserPool, boolean debug) {
+        return !debug && parserPool.isMarkdownTextRules();
+    }
+
+    /**
+     * Parses into nodes with the parsing options resolved beforehand, see {@link MinecraftSerializerPipeline}.
+     */
+    static List<Node<Object>> parseNodes(
+            String discordMessage,
+            ParserPool parserPool,
+            boolean textOnly,
+            boolean blockParsing,
+            boolean debug
+    ) {
+        if (textOnly && !discordMessage.isEmpty() && !CharScanner.MARKDOWN_TRIGGERS.containsAny(discordMessage)) {
+            // None of the rules can match, the text rule would match the entire message (in pieces that are merged)
+            List<Node<Object>> nodes = new ArrayList<>(1);
+            nodes.add(new TextSliceNode<>(new TextSlice(discordMessage)));
+            return nodes;
+        }
+
+        List<Node<Object>> nodes = parserPool.parse((parser, rules) -> {
+            if (blockParsing) {
+                return DiscordBlockParser.parse(discordMessage, parser, rules, debug);
+            } else {
+                return parser.parse(new TextSlice(discordMessage), null, rules, debug);
+            }
+        });
         nodes = flattenTextNodes(nodes); // reduce the amount of single character nodes caused by special characters
+        if (!blockParsing) {
+            nodes = removeQuoteMarkers(nodes, false);
+        }
+        return nodes;
+    }
+
+    /**
+     * The quote rule parses the lines of a quote with the {@code > } of every line after the first,
+     * those are replaced by the quote line prefix when rendering. The block parser removes them before parsing.
+     * Runs after {@link #flattenTextNodes(List)} so the new line and the marker are in the same text node.
+     *
+     * @return the given list if there were no markers, otherwise a new list
+     */
+    private static List<Node<Object>> removeQuoteMarkers(List<Node<Object>> nodes, boolean inQuote) {
+        List<Node<Object>> removed = null;
+        for (int index = 0; index < nodes.size(); index++) {
+            Node<Object> node = nodes.get(index);
+            Node<Object> removedNode = node;
+            if (node instanceof TextNode) {
+                String content = ((TextNode<?>) node).getContent();
+                if (inQuote && content.contains("\n> ")) {
+                    removedNode = new TextNode<>(content.replace("\n> ", "\n"));
+                }
+            } else {
+                List<Node<Object>> children = node.getChildren();
+                if (children != null && !children.isEmpty()) {
+                    boolean quote = inQuote || MinecraftRenderer.isContentNode(node, StyleNode.ContentStyle.Type.QUOTE);
+                    removedNode = withChildren(node, children, removeQuoteMarkers(children, quote));
+                }
+            }
+
+            if (removedNode != node && removed == null) {
+                removed = new ArrayList<>(nodes.subList(0, index));
+            }
+            if (removed != null) {
+                removed.add(removedNode);
+            }
+        }
+        return removed != null ? removed : nodes;
+    }
+
+    Component render(List<Node<Object>> nodes, MinecraftSerializerOptions<Component> serializerOptions) {
+        List<Component> components = new ArrayList<>();
         for (Node<Object> node : nodes) {
-            components.add(addChild(node, serializerOptions, null));
+            components.add(addChild(node, serializerOptions, null, null));
         }
+        return join(components, serializerOptions);
+    }
 
+    private static Component join(List<Component> components, MinecraftSerializerOptions<Component> serializerOptions) {
+        Component component;
         if (components.size() == 1) {
-            return components.get(0);
+            component = components.get(0);
+        } else {
+            component = Component.empty().children(components);
+        }
+
+        if (serializerOptions.isOutputCompactionEnabled()) {
+            return ComponentCompactor.compact(component);
+        }
+        return component;
+    }
+
+    /**
+     * Renders the node at the cursor the same way {@link #addChild(Node, MinecraftSerializerOptions, Component, RenderContext)}
+     * does with only the given renderer, leaves the cursor at the same node.
+     */
+    private Component renderCompact(
+            CompactAst.Cursor cursor,
+            MinecraftSerializerOptions<Component> serializerOptions,
+            DefaultMinecraftRenderer renderer,
+            Component component,
+            Component lineStart
+    ) {
+        switch (cursor.getKind()) {
+            case TEXT: {
+                String content = cursor.getText().toString();
+                if (lineStart == null || content.indexOf('\n') == -1) {
+                    return renderText(content, component);
+                }
+
+                Component output = null;
+                int start = 0;
+                while (true) {
+                    int newline = content.indexOf('\n', start);
+                    int end = newline != -1 ? newline + 1 : content.length();
+                    if (output == null) {
+                        output = renderText(content.substring(start, end), component);
+                    } else if (end > start) {
+                        output = output.append(renderText(content.substring(start, end), null));
+                    }
+                    if (newline == -1) {
+                        return output;
+                    }
+
+                    output = output.append(lineStart);
+                    start = end;
+                }
+            }
+            case STYLE: {
+                Style decoration = decorationStyle(cursor.getStyles(), renderer);
+                if (decoration != null) {
+                    return renderCompactDecorated(cursor, serializerOptions, renderer, decoration, lineStart);
+                }
+
+                int index = cursor.getIndex();
+                boolean rendersChildren = false;
+                Component childLineStart = lineStart;
+                Component output = Component.empty();
+                for (StyleNode.Style style : cursor.getStyles()) {
+                    if (style instanceof StyleNode.ContentStyle) {
+                        StyleNode.ContentStyle.Type type = ((StyleNode.ContentStyle) style).getType();
+                        if (type == StyleNode.ContentStyle.Type.QUOTE || type == StyleNode.ContentStyle.Type.SPOILER) {
+                            rendersChildren = true;
+                        }
+                        if (type == StyleNode.ContentStyle.Type.QUOTE && renderer.quoteLinePrefix() != null) {
+                            childLineStart = renderer.quoteLinePrefix();
+                        }
+                    }
+                }
+
+                Component finalLineStart = childLineStart;
+                Supplier<Component> content = () -> {
+                    cursor.moveTo(index);
+                    return renderCompactChildren(cursor, serializerOptions, renderer, Component.empty(), finalLineStart, false);
+                };
+                for (StyleNode.Style style : cursor.getStyles()) {
+                    output = renderer.renderStyle(output, style, content);
+                    if (output == null) {
+                        throw new IllegalStateException("DefaultMinecraftRenderer returned a null component");
+                    }
+                }
+
+                cursor.moveTo(index);
+                if (!rendersChildren) {
+                    output = renderCompactChildren(cursor, serializerOptions, renderer, output, childLineStart, true);
+                }
+                return output;
+            }
+            default:
+                return addChild(cursor.getNode(), serializerOptions, component, null);
+        }
+    }
+
+    /**
+     * The style the renderer gives a node that only has decorations and code.
+     *
+     * @return the style or {@code null} if the styles include something else
+     */
+    private static Style decorationStyle(List<StyleNode.Style> styles, DefaultMinecraftRenderer renderer) {
+        Component output = Component.empty();
+        for (StyleNode.Style style : styles) {
+            switch (style.getKind()) {
+                case BOLD:
+                case ITALICS:
+                case UNDERLINE:
+                case STRIKETHROUGH:
+                case CODE_STRING:
+                case CODE_BLOCK:
+                    // Decorations don't render the content
+                    output = renderer.renderStyle(output, style, Component::empty);
+                    if (output == null) {
+                        return null;
+                    }
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return output.style();
+    }
+
+    /**
+     * Renders a node that only has decorations, creating only one component if it has no other children than text.
+     */
+    private Component renderCompactDecorated(
+            CompactAst.Cursor cursor,
+            MinecraftSerializerOptions<Component> serializerOptions,
+            DefaultMinecraftRenderer renderer,
+            Style decoration,
+            Component lineStart
+    ) {
+        int index = cursor.getIndex();
+        Component output = null;
+        List<Component> children = null;
+        if (cursor.firstChild()) {
+            boolean first = true;
+            do {
+                if (first && cursor.getKind() == CompactAst.Kind.TEXT) {
+                    // Apply text to the current component if it's the first child
+                    String content = cursor.getText().toString();
+                    if (lineStart == null || content.indexOf('\n') == -1) {
+                        output = Component.text(content, decoration);
+                    } else {
+                        output = renderCompact(cursor, serializerOptions, renderer, Component.text("", decoration), lineStart);
+                    }
+                } else {
+                    children = addComponent(children, renderCompact(cursor, serializerOptions, renderer, null, lineStart));
+                }
+                first = false;
+            } while (cursor.nextSibling());
+        }
+        cursor.moveTo(index);
+
+        if (output == null) {
+            output = Component.text("", decoration);
+        }
+        return appendAll(output, children);
+    }
+
+    private Component renderCompactChildren(
+            CompactAst.Cursor cursor,
+            MinecraftSerializerOptions<Component> serializerOptions,
+            DefaultMinecraftRenderer renderer,
+            Component output,
+            Component lineStart,
+            boolean mergeFirstText
+    ) {
+        int index = cursor.getIndex();
+        if (cursor.firstChild()) {
+            boolean first = true;
+            do {
+                if (first && mergeFirstText && cursor.getKind() == CompactAst.Kind.TEXT) {
+                    // Apply text to the current component if it's the first child
+                    output = renderCompact(cursor, serializerOptions, renderer, output, lineStart);
+                } else {
+                    output = output.append(renderCompact(cursor, serializerOptions, renderer, null, lineStart));
+                }
+                first = false;
+            } while (cursor.nextSibling());
         }
+        cursor.moveTo(index);
+        return output;
+    }
 
-        return Component.empty().children(components);
+    private static List<Component> addComponent(List<Component> components, Component component) {
+        if (component == Component.empty()) {
+            // Component#append ignores the empty component
+            return components;
+        }
+        if (components == null) {
+            components = new ArrayList<>();
+        }
+        components.add(component);
+        return components;
+    }
+
+    /**
+     * Appends all the components at once, instead of creating a new component for every {@link Component#append(Component)}.
+     */
+    private static Component appendAll(Component component, List<Component> components) {
+        if (components == null) {
+            return component;
+        }
+        List<Component> existing = component.children();
+        if (!existing.isEmpty()) {
+            List<Component> children = new ArrayList<>(existing.size() + components.size());
+            children.addAll(existing);
+            children.addAll(components);
+            components = children;
+        }
+        return component.children(components);
+    }
+
+    private static Component renderText(String content, Component component) {
+        return ((TextComponent) (component != null ? component : Component.empty())).content(content);
     }
 
     private Component addChild(
             Node<Object> node,
             MinecraftSerializerOptions<Component> serializerOptions,
-            Component component
+            Component component,
+            RenderContext parent
+    ) {
+        if (parent != null && node instanceof TextNode) {
+            String content = ((TextNode<?>) node).getContent();
+            if (content.indexOf('\n') != -1) {
+                Component lineStart = parent.lineStart();
+                if (lineStart != null) {
+                    return addLines(content, lineStart, serializerOptions, component, parent);
+                }
+            }
+        }
+        return render(node, serializerOptions, component, parent);
+    }
+
+    private Component addLines(
+            String content,
+            Component lineStart,
+            MinecraftSerializerOptions<Component> serializerOptions,
+            Component component,
+            RenderContext parent
+    ) {
+        Component output = null;
+        int start = 0;
+        while (true) {
+            int newline = content.indexOf('\n', start);
+            int end = newline != -1 ? newline + 1 : content.length();
+            if (output == null) {
+                output = render(new TextNode<>(content.substring(start, end)), serializerOptions, component, parent);
+            } else if (end > start) {
+                output = output.append(render(new TextNode<>(content.substring(start, end)), serializerOptions, null, parent));
+            }
+            if (newline == -1) {
+                return output;
+            }
+
+            output = output.append(lineStart);
+            start = end;
+        }
+    }
+
+    private Component render(
+            Node<Object> node,
+            MinecraftSerializerOptions<Component> serializerOptions,
+            Component component,
+            RenderContext parent
     ) {
         if (component == null) {
             component = Component.empty();
         }
-        Function<Node<Object>, Component> renderWithChildren = otherNode -> addChild(otherNode, serializerOptions, null);
+        RenderContext renderWithChildren = new RenderContext(node, serializerOptions, parent);
 
         Component output = null;
         NodeRenderer<Component> render = null;
-        for (NodeRenderer<Component> renderer : serializerOptions.getRenderers()) {
+        for (NodeRenderer<Component> renderer : serializerOptions.getRenderers(NodeKind.of(node))) {
+            renderWithChildren.setRenderer(renderer);
             Component currentOutput = renderer.render(component, node, serializerOptions, renderWithChildren);
             if (currentOutput != null) {
                 output = currentOutput;
@@ -154,6 +987,7 @@ public class MinecraftSerializer {
         }
         if (output == null) {
             render = DefaultMinecraftRenderer.INSTANCE;
+            renderWithChildren.setRenderer(render);
             output = render.render(component, node, serializerOptions, renderWithChildren);
             if (output == null) {
                 throw new IllegalStateException("DefaultMinecraftRenderer returned a null component");
@@ -161,19 +995,21 @@ public class MinecraftSerializer {
         }
 
         Collection<Node<Object>> children = node.getChildren();
-        if (children != null) {
+        if (children != null && !render.rendersChildren(node)) {
             boolean first = true;
+            List<Component> childComponents = null;
             for (Node<Object> child : children) {
                 if (first && child instanceof TextNode) {
                     // Apply text to the current component if it's the first child
-                    output = addChild(child, serializerOptions, output);
+                    output = addChild(child, serializerOptions, output, renderWithChildren);
                     first = false;
                     continue;
                 }
                 first = false;
 
-                output = output.append(addChild(child, serializerOptions, null));
+                childComponents = addComponent(childComponents, addChild(child, serializerOptions, null, renderWithChildren));
             }
+            output = appendAll(output, childComponents);
         }
 
         Component newOutput = render.renderAfterChildren(output, node, serializerOptions, renderWithChildren);
@@ -184,42 +1020,162 @@ public class MinecraftSerializer {
         return output;
     }
 
-    @SuppressWarnings("unchecked")
-    private <R, T extends Node<R>> List<T> flattenTextNodes(List<T> nodes) {
-        List<T> newNodes = new ArrayList<>();
-        TextNode<T> previousNode = null;
-        for (T node : nodes) {
-            List<Node<R>> children = node.getChildren();
-            if (!children.isEmpty()) {
-                if (previousNode != null) {
-                    newNodes.add((T) previousNode);
-                    previousNode = null;
-                }
-
-                List<T> childNodes = flattenTextNodes((List<T>) children);
-                node.getChildren().clear();
-                node.getChildren().addAll(childNodes);
-                newNodes.add(node);
-                continue;
-            }
+    /**
+     * Merges adjacent {@link TextNode}s, reducing the amount of single character nodes caused by special characters.
+     * Runs of consecutive {@link TextSliceNode}s are merged into one slice without copying, other runs of text nodes
+     * are joined with a single {@link StringBuilder}.
+     * <p>
+     * The given list and nodes are not modified, parsed nodes may already be kept by a {@link ParsedMessage}.
+     * A merge creates a new list, and copies of the {@link StyleNode}s above it with the new children.
+     *
+     * @param nodes the nodes to merge
+     * @return the given list if there was nothing to merge, otherwise a new list
+     */
+    private static <R> List<Node<R>> flattenTextNodes(List<Node<R>> nodes) {
+        List<Node<R>> flattened = null;
+        int size = nodes.size();
+        int read = 0;
+        while (read < size) {
+            Node<R> node = nodes.get(read);
             if (!(node instanceof TextNode)) {
-                if (previousNode != null) {
-                    newNodes.add((T) previousNode);
-                    previousNode = null;
+                Node<R> flattenedNode = node;
+                List<Node<R>> children = node.getChildren();
+                if (children != null && !children.isEmpty()) {
+                    flattenedNode = withChildren(node, children, flattenTextNodes(children));
+                }
+                if (flattenedNode != node && flattened == null) {
+                    flattened = new ArrayList<>(nodes.subList(0, read));
+                }
+                if (flattened != null) {
+                    flattened.add(flattenedNode);
                 }
-                newNodes.add(node);
+                read++;
                 continue;
             }
 
-            if (previousNode == null) {
-                previousNode = (TextNode<T>) node;
-            } else {
-                previousNode = new TextNode<>(previousNode.getContent() + ((TextNode<?>) node).getContent());
+            int runEnd = read + 1;
+            int length = contentLength(node);
+            while (runEnd < size && nodes.get(runEnd) instanceof TextNode) {
+                length += contentLength(nodes.get(runEnd));
+                runEnd++;
+            }
+            if (runEnd - read > 1) {
+                node = mergeSlices(nodes, read, runEnd);
+                if (node == null) {
+                    StringBuilder content = new StringBuilder(length);
+                    for (int index = read; index < runEnd; index++) {
+                        content.append(((TextNode<?>) nodes.get(index)).getContent());
+                    }
+                    node = new TextNode<>(content.toString());
+                }
+                if (flattened == null) {
+                    flattened = new ArrayList<>(nodes.subList(0, read));
+                }
+            }
+            if (flattened != null) {
+                flattened.add(node);
+            }
+            read = runEnd;
+        }
+        return flattened != null ? flattened : nodes;
+    }
+
+    /**
+     * A node like the given node with the new children, or the node itself if the children didn't change.
+     * {@link StyleNode}s are copied, other kinds of nodes (from custom rules) can't be copied so their children are replaced,
+     * this is only done on nodes from the parse that is in progress.
+     */
+    @SuppressWarnings("unchecked")
+    private static <R> Node<R> withChildren(Node<R> node, List<Node<R>> children, List<Node<R>> newChildren) {
+        if (newChildren == children) {
+            return node;
+        }
+        if (node.getClass() == StyleNode.class) {
+            StyleNode<R, StyleNode.Style> copy = new StyleNode<>(((StyleNode<R, StyleNode.Style>) node).getStyles());
+            for (Node<R> child : newChildren) {
+                copy.addChild(child);
+            }
+            return copy;
+        }
+        children.clear();
+        children.addAll(newChildren);
+        return node;
+    }
+
+    private static int contentLength(Node<?> node) {
+        if (node instanceof TextSliceNode) {
+            return ((TextSliceNode<?>) node).getSlice().length();
+        }
+        return ((TextNode<?>) node).getContent().length();
+    }
+
+    /**
+     * Merges a run of {@link TextSliceNode}s that are next to each other in the same message into one slice, without copying.
+     *
+     * @return the merged node or {@code null} if the run isn't made of consecutive slices
+     */
+    private static <R> Node<R> mergeSlices(List<Node<R>> nodes, int from, int to) {
+        if (!(nodes.get(from) instanceof TextSliceNode)) {
+            return null;
+        }
+        TextSlice first = ((TextSliceNode<?>) nodes.get(from)).getSlice();
+        int end = first.getEnd();
+        for (int index = from + 1; index < to; index++) {
+            Node<R> node = nodes.get(index);
+            if (!(node instanceof TextSliceNode)) {
+                return null;
+            }
+            TextSlice slice = ((TextSliceNode<?>) node).getSlice();
+            if (slice.getSource() != first.getSource() || slice.getStart() != end) {
+                return null;
+            }
+            end = slice.getEnd();
+        }
+        return new TextSliceNode<>(new TextSlice(first.getSource(), first.getStart(), end));
+    }
+
+    /**
+     * The {@code renderWithChildren} function given to renderers, which also keeps track of
+     * the line start for the content of the node being rendered.
+     */
+    private class RenderContext implements Function<Node<Object>, Component> {
+
+        private final Node<Object> node;
+        private final MinecraftSerializerOptions<Component> serializerOptions;
+        private final RenderContext parent;
+        private NodeRenderer<Component> renderer;
+        private boolean lineStartResolved;
+        private Component lineStart;
+
+        public RenderContext(Node<Object> node, MinecraftSerializerOptions<Component> serializerOptions, RenderContext parent) {
+            this.node = node;
+            this.serializerOptions = serializerOptions;
+            this.parent = parent;
+        }
+
+        public void setRenderer(NodeRenderer<Component> renderer) {
+            this.renderer = renderer;
+            this.lineStartResolved = false;
+        }
+
+        /**
+         * The line start of the closest node that has one.
+         * @return the line start or {@code null} if lines don't start with anything here
+         */
+        public Component lineStart() {
+            if (!lineStartResolved) {
+                lineStart = renderer.renderLineStart(node, serializerOptions);
+                if (lineStart == null && parent != null) {
+                    lineStart = parent.lineStart();
+                }
+                lineStartResolved = true;
             }
+            return lineStart;
         }
-        if (previousNode != null) {
-            newNodes.add((T) previousNode);
+
+        @Override
+        public Component apply(Node<Object> otherNode) {
+            return addChild(otherNode, serializerOptions, null, this);
         }
-        return newNodes;
     }
 }
@@ -18,9 +18,12 @@
 
 package dev.vankka.mcdiscordreserializer.minecraft;
 
+import dev.vankka.mcdiscordreserializer.renderer.MinecraftNodeRenderer;
 import dev.vankka.mcdiscordreserializer.renderer.NodeRenderer;
 import dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftRenderer;
+import dev.vankka.mcdiscordreserializer.rules.DiscordBlockParser;
 import dev.vankka.mcdiscordreserializer.rules.DiscordMarkdownRules;
+import dev.vankka.mcdiscordreserializer.rules.NodeKind;
 import dev.vankka.simpleast.core.node.Node;
 import dev.vankka.simpleast.core.parser.Parser;
 import dev.vankka.simpleast.core.parser.Rule;
@@ -29,8 +32,11 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Options for {@link MinecraftSerializer}s.
@@ -43,13 +49,16 @@ public class MinecraftSerializerOptions<O> {
 
     /**
      * Creates the default {@link MinecraftSerializerOptions} for serialization.
+     * The parser and rules of the default options are shared, see {@link #withRules(int)}.
+     * Code blocks and quotes are parsed with the rules, see {@link #withBlockParsingEnabled(boolean)}.
      * @return the default {@link MinecraftSerializerOptions}.
      */
     public static MinecraftSerializerOptions<Component> defaults() {
         return new MinecraftSerializerOptions<>(
-                new Parser<>(),
-                DiscordMarkdownRules.createAllRulesForDiscord(true),
+                ParserPool.shared(DiscordMarkdownRules.ALL_RULES),
                 Collections.emptyList(),
+                false,
+                false,
                 false
         );
     }
@@ -73,21 +82,97 @@ public class MinecraftSerializerOptions<O> {
     @NotNull
     private final List<NodeRenderer<O>> renderers;
 
+    /**
+     * The {@link #renderers} for each {@link NodeKind}, indexed by {@link NodeKind#ordinal()}.
+     */
+    @NotNull
+    private final List<NodeRenderer<O>>[] renderersByKind;
+
     /**
      * Weather or not to use debug logging for the {@link Parser}.
      */
     private final boolean debuggingEnabled;
 
+    /**
+     * Weather or not to parse code blocks and quotes with the {@link DiscordBlockParser} before the {@link Parser}.
+     */
+    private final boolean blockParsingEnabled;
+
+    /**
+     * Weather or not to compact the serialized {@link Component}s with the {@link ComponentCompactor}.
+     */
+    private final boolean outputCompactionEnabled;
+
+    /**
+     * The parser and rules, shared with options derived from these options that use the same parser and rules.
+     */
+    @NotNull
+    private final ParserPool parserPool;
+
     public MinecraftSerializerOptions(
             @NotNull Parser<Object, Node<Object>, Object> parser,
             @Nullable List<Rule<Object, Node<Object>, Object>> rules,
             @NotNull List<NodeRenderer<O>> renderers,
             boolean debuggingEnabled
     ) {
-        this.parser = parser;
-        this.rules = rules != null ? Collections.unmodifiableList(rules) : null;
-        this.renderers = Collections.unmodifiableList(renderers);
+        this(parser, rules, renderers, debuggingEnabled, false);
+    }
+
+    public MinecraftSerializerOptions(
+            @NotNull Parser<Object, Node<Object>, Object> parser,
+            @Nullable List<Rule<Object, Node<Object>, Object>> rules,
+            @NotNull List<NodeRenderer<O>> renderers,
+            boolean debuggingEnabled,
+            boolean blockParsingEnabled
+    ) {
+        this(new ParserPool(parser, rules, null), renderers, debuggingEnabled, blockParsingEnabled, false);
+    }
+
+    private MinecraftSerializerOptions(
+            ParserPool parserPool,
+            List<NodeRenderer<O>> renderers,
+            boolean debuggingEnabled,
+            boolean blockParsingEnabled,
+            boolean outputCompactionEnabled
+    ) {
+        this.parserPool = parserPool;
+        this.parser = parserPool.getParser();
+        this.rules = parserPool.getRules();
+        this.renderers = Collections.unmodifiableList(new ArrayList<>(renderers));
+        this.renderersByKind = renderersByKind(this.renderers);
         this.debuggingEnabled = debuggingEnabled;
+        this.blockParsingEnabled = blockParsingEnabled;
+        this.outputCompactionEnabled = outputCompactionEnabled;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <O> List<NodeRenderer<O>>[] renderersByKind(List<NodeRenderer<O>> renderers) {
+        NodeKind[] kinds = NodeKind.values();
+        List<NodeRenderer<O>>[] renderersByKind = new List[kinds.length];
+        if (renderers.isEmpty()) {
+            Arrays.fill(renderersByKind, renderers);
+            return renderersByKind;
+        }
+        for (NodeKind kind : kinds) {
+            if (kind == NodeKind.OTHER) {
+                renderersByKind[kind.ordinal()] = renderers;
+                continue;
+            }
+
+            List<NodeRenderer<O>> kindRenderers = new ArrayList<>();
+            for (NodeRenderer<O> renderer : renderers) {
+                Set<NodeKind> rendererKinds = renderer.getNodeKinds();
+                if (rendererKinds == null || rendererKinds.contains(kind)) {
+                    kindRenderers.add(renderer);
+                }
+            }
+            if (kindRenderers.size() == renderers.size()) {
+                renderersByKind[kind.ordinal()] = renderers;
+            } else {
+                renderersByKind[kind.ordinal()] = Collections.unmodifiableList(kindRenderers);
+            }
+        }
+        return renderersByKind;
     }
 
     /**
@@ -101,16 +186,28 @@ public class MinecraftSerializerOptions<O> {
     /**
      * Creates a new instance of {@link dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions}
      * based on this instance with parser set to the provided value.
+     * If these options have a {@link #getRulesFactory() rules factory} the new options get new rules from it,
+     * otherwise the new options use the same rules.
      * @param parser a parser for parsing a string into abstract syntax tree
      * @return the new instance
      */
     public MinecraftSerializerOptions<O> withParser(@NotNull Parser<Object, Node<Object>, Object> parser) {
-        return new MinecraftSerializerOptions<>(parser, rules, renderers, debuggingEnabled);
+        // Rules are locked by the parser they're used with, so rules from a pool can't be used with another parser
+        Supplier<List<Rule<Object, Node<Object>, Object>>> rulesFactory = parserPool.getRulesFactory();
+        ParserPool parserPool = rulesFactory != null
+                                ? new ParserPool(parser, rulesFactory.get(), rulesFactory)
+                                : new ParserPool(parser, rules, null);
+        return new MinecraftSerializerOptions<>(parserPool, renderers, debuggingEnabled, blockParsingEnabled, outputCompactionEnabled);
     }
 
     /**
      * Gets the rules for creating the abstract syntax tree to Minecraft for these options.
-     * @return the parser
+     * <p>
+     * {@link Rule}s can only be used by one thread at a time. The rules of the {@link #defaults() default options}
+     * and options from {@link #withRules(int)} are shared by all options using the same rule flags, and are only used
+     * while holding their parser's lock. Don't parse with them outside of the serializer or pass them to
+     * {@link #withRules(List)}; use {@link #getRulesFactory()} or {@link DiscordMarkdownRules#createRules(int)} for rules of your own.
+     * @return the rules
      */
     public @Nullable List<Rule<Object, Node<Object>, Object>> getRules() {
         return rules;
@@ -123,7 +220,49 @@ public class MinecraftSerializerOptions<O> {
      * @return the new instance
      */
     public MinecraftSerializerOptions<O> withRules(@NotNull List<Rule<Object, Node<Object>, Object>> rules) {
-        return new MinecraftSerializerOptions<>(parser, rules, renderers, debuggingEnabled);
+        return new MinecraftSerializerOptions<>(new ParserPool(parser, rules, null), renderers, debuggingEnabled, blockParsingEnabled, outputCompactionEnabled);
+    }
+
+    /**
+     * Creates a new instance of {@link dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions}
+     * based on this instance with the {@link DiscordMarkdownRules} selected by the given flags.
+     * <p>
+     * The parser and rules are shared by all options using the same flags,
+     * so this is cheap to call for many options (for example {@code DiscordMarkdownRules.ALL_RULES & ~DiscordMarkdownRules.SPOILER}).
+     *
+     * @param rules the rule flags
+     * @return the new instance
+     * @see DiscordMarkdownRules#createRules(int)
+     */
+    public MinecraftSerializerOptions<O> withRules(int rules) {
+        return new MinecraftSerializerOptions<>(ParserPool.shared(rules), renderers, debuggingEnabled, blockParsingEnabled, outputCompactionEnabled);
+    }
+
+    /**
+     * Gets the factory used to create more rules for parsing messages on multiple threads at the same time.
+     * @return the rules factory or {@code null} if messages are parsed one at a time with {@link #getParser()} and {@link #getRules()}
+     */
+    public @Nullable Supplier<List<Rule<Object, Node<Object>, Object>>> getRulesFactory() {
+        return parserPool.getRulesFactory();
+    }
+
+    /**
+     * Creates a new instance of {@link dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions}
+     * based on this instance with rules created by the given factory.
+     * <p>
+     * {@link Rule}s can only be used by one thread at a time, options with a rules factory create another parser
+     * and rules when a message is parsed while the others are in use instead of waiting for them.
+     * The additional parsers are created with {@link Parser#Parser()}.
+     *
+     * @param rulesFactory creates a new list of rule instances for each call
+     * @return the new instance
+     */
+    public MinecraftSerializerOptions<O> withRulesFactory(@NotNull Supplier<List<Rule<Object, Node<Object>, Object>>> rulesFactory) {
+        return new MinecraftSerializerOptions<>(new ParserPool(parser, rulesFactory.get(), rulesFactory), renderers, debuggingEnabled, blockParsingEnabled, outputCompactionEnabled);
+    }
+
+    ParserPool getParserPool() {
+        return parserPool;
     }
 
     /**
@@ -146,7 +285,7 @@ public class MinecraftSerializerOptions<O> {
         }
         List<NodeRenderer<O>> renderers = new ArrayList<>(this.renderers);
         renderers.add(renderer);
-        return new MinecraftSerializerOptions<>(parser, rules, renderers, debuggingEnabled);
+        return new MinecraftSerializerOptions<>(parserPool, renderers, debuggingEnabled, blockParsingEnabled, outputCompactionEnabled);
     }
 
     /**
@@ -170,7 +309,7 @@ public class MinecraftSerializerOptions<O> {
         }
         List<NodeRenderer<O>> renderers = new ArrayList<>(this.renderers);
         renderers.add(index, renderer);
-        return new MinecraftSerializerOptions<>(parser, rules, renderers, debuggingEnabled);
+        return new MinecraftSerializerOptions<>(parserPool, renderers, debuggingEnabled, blockParsingEnabled, outputCompactionEnabled);
     }
 
     /**
@@ -187,7 +326,22 @@ public class MinecraftSerializerOptions<O> {
         }
         List<NodeRenderer<O>> renderers = new ArrayList<>(this.renderers);
         renderers.remove(renderer);
-        return new MinecraftSerializerOptions<>(parser, rules, renderers, debuggingEnabled);
+        return new MinecraftSerializerOptions<>(parserPool, renderers, debuggingEnabled, blockParsingEnabled, outputCompactionEnabled);
+    }
+
+    /**
+     * Creates a new instance of {@link dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions}
+     * with the same parsing options as this instance and the given renderers, which may render to another type.
+     * For example {@code MinecraftSerializerOptions.defaults().<MinecraftJsonWriter>withRenderers(Collections.emptyList())}
+     * creates the default options for {@link MinecraftSerializer#serializeJson(String, MinecraftSerializerOptions, Appendable)}.
+     *
+     * @param renderers the renderers
+     * @param <T> the type the renderers render to
+     * @return the new instance of options
+     */
+    @NotNull
+    public <T> MinecraftSerializerOptions<T> withRenderers(@NotNull List<NodeRenderer<T>> renderers) {
+        return new MinecraftSerializerOptions<>(parserPool, renderers, debuggingEnabled, blockParsingEnabled, outputCompactionEnabled);
     }
 
     /**
@@ -199,12 +353,82 @@ public class MinecraftSerializerOptions<O> {
         return renderers;
     }
 
+    /**
+     * Returns the renderers for nodes of the given kind, these are the renderers that don't
+     * {@link NodeRenderer#getNodeKinds() exclude} the kind. This list is computed when the options are created.
+     * @param kind the kind of node
+     * @return the ordered unmodifiable list of renderers for the kind of node
+     */
+    @NotNull
+    public List<NodeRenderer<O>> getRenderers(@NotNull NodeKind kind) {
+        return renderersByKind[kind.ordinal()];
+    }
+
     public boolean isDebuggingEnabled() {
         return debuggingEnabled;
     }
 
     public MinecraftSerializerOptions<O> withDebuggingEnabled(boolean debuggingEnabled) {
-        return new MinecraftSerializerOptions<>(parser, rules, renderers, debuggingEnabled);
+        return new MinecraftSerializerOptions<>(parserPool, renderers, debuggingEnabled, blockParsingEnabled, outputCompactionEnabled);
+    }
+
+    /**
+     * If code blocks and quotes are parsed with the {@link DiscordBlockParser} in a single pass over the message,
+     * instead of with the code block and quote {@link Rule Rules}. Inline content is parsed with the rules either way.
+     * Block parsing is disabled by default.
+     * @return if these options have block parsing enabled
+     */
+    public boolean isBlockParsingEnabled() {
+        return blockParsingEnabled;
+    }
+
+    /**
+     * Creates a new instance of {@link dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions}
+     * based on this instance with blockParsingEnabled set to the provided value.
+     * Block parsing is required to reuse the unchanged parts of a message with
+     * {@link MinecraftSerializer#parse(ParsedMessage, String, MinecraftSerializerOptions)}.
+     * @param blockParsingEnabled {@code true} to parse code blocks and quotes with the {@link DiscordBlockParser}
+     * @return the new instance
+     */
+    public MinecraftSerializerOptions<O> withBlockParsingEnabled(boolean blockParsingEnabled) {
+        return new MinecraftSerializerOptions<>(parserPool, renderers, debuggingEnabled, blockParsingEnabled, outputCompactionEnabled);
+    }
+
+
+    /**
+     * If the serialized {@link Component}s are compacted with the {@link ComponentCompactor},
+     * which makes them smaller to send without changing how they are displayed.
+     * @return if these options have output compaction enabled
+     */
+    public boolean isOutputCompactionEnabled() {
+        return outputCompactionEnabled;
+    }
+
+    /**
+     * Creates a new instance of {@link dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions}
+     * based on this instance with outputCompactionEnabled set to the provided value.
+     * @param outputCompactionEnabled {@code true} to compact serialized components with the {@link ComponentCompactor}
+     * @return the new instance
+     */
+    public MinecraftSerializerOptions<O> withOutputCompactionEnabled(boolean outputCompactionEnabled) {
+        return new MinecraftSerializerOptions<>(parserPool, renderers, debuggingEnabled, blockParsingEnabled, outputCompactionEnabled);
+    }
+
+    /**
+     * Compiles these options into a {@link MinecraftSerializerPipeline}, which serializes to {@link Component}s
+     * with these options and cannot be changed afterwards.
+     * @return the pipeline for these options
+     * @throws IllegalStateException if one of the renderers isn't a {@link MinecraftNodeRenderer}
+     */
+    @SuppressWarnings("unchecked")
+    public MinecraftSerializerPipeline compile() {
+        for (NodeRenderer<O> renderer : renderers) {
+            if (!(renderer instanceof MinecraftNodeRenderer)) {
+                throw new IllegalStateException("Only options with MinecraftNodeRenderers can be compiled, found " + renderer);
+            }
+        }
+        // Every renderer renders components, options without renderers render with the DefaultMinecraftRenderer
+        return new MinecraftSerializerPipeline((MinecraftSerializerOptions<Component>) this);
     }
 
     @Override
@@ -214,6 +438,8 @@ public class MinecraftSerializerOptions<O> {
                 ", rules=" + rules +
                 ", renderers=" + renderers +
                 ", debuggingEnabled=" + debuggingEnabled +
+                ", blockParsingEnabled=" + blockParsingEnabled +
+                ", outputCompactionEnabled=" + outputCompactionEnabled +
                 '}';
     }
 }
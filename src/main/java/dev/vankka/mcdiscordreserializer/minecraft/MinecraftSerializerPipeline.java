@@ -0,0 +1,105 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link MinecraftSerializerOptions} compiled with {@link MinecraftSerializerOptions#compile()}, for serializing
+ * Discord messages to Minecraft {@link Component}s with options that can't be changed.
+ * <p>
+ * The parsing options are resolved when the pipeline is compiled, including if messages without markdown can skip the parser,
+ * and the renderers are dispatched with the options' renderers for each kind of node. Pipelines are immutable and thread safe,
+ * pipelines compiled from options derived from the same options (for example with
+ * {@link MinecraftSerializerOptions#addRenderer(dev.vankka.mcdiscordreserializer.renderer.NodeRenderer)})
+ * share the same parsers and rules, so a pipeline per audience or guild is cheap.
+ */
+public final class MinecraftSerializerPipeline {
+
+    private final MinecraftSerializerOptions<Component> options;
+    private final ParserPool parserPool;
+    private final boolean textOnly;
+    private final boolean blockParsingEnabled;
+    private final boolean debuggingEnabled;
+
+    MinecraftSerializerPipeline(MinecraftSerializerOptions<Component> options) {
+        this.options = options;
+        this.parserPool = options.getParserPool();
+        this.debuggingEnabled = options.isDebuggingEnabled();
+        this.blockParsingEnabled = options.isBlockParsingEnabled();
+        this.textOnly = MinecraftSerializer.textOnly(parserPool, debuggingEnabled);
+    }
+
+    /**
+     * The options this pipeline was compiled from.
+     * @return the options
+     */
+    @NotNull
+    public MinecraftSerializerOptions<Component> getOptions() {
+        return options;
+    }
+
+    /**
+     * Parses Discord formatting (markdown).
+     *
+     * @param discordMessage a Discord markdown message
+     * @return the parsed message
+     * @see MinecraftSerializer#parse(String, MinecraftSerializerOptions)
+     */
+    @NotNull
+    public ParsedMessage parse(@NotNull String discordMessage) {
+        return MinecraftSerializer.parse(discordMessage, parserPool, textOnly, blockParsingEnabled, debuggingEnabled);
+    }
+
+    /**
+     * Serializes Discord formatting (markdown) to a Minecraft {@link Component}.
+     *
+     * @param discordMessage a Discord markdown message
+     * @return the Discord message formatted to a Minecraft TextComponent
+     * @see MinecraftSerializer#serialize(String, MinecraftSerializerOptions)
+     */
+    @NotNull
+    public Component serialize(@NotNull String discordMessage) {
+        return MinecraftSerializer.INSTANCE.render(
+                MinecraftSerializer.parseNodes(discordMessage, parserPool, textOnly, blockParsingEnabled, debuggingEnabled),
+                options
+        );
+    }
+
+    /**
+     * Serializes a parsed Discord message to a Minecraft {@link Component}.
+     *
+     * @param message the parsed Discord message
+     * @return the Discord message formatted to a Minecraft TextComponent
+     * @see MinecraftSerializer#serialize(ParsedMessage, MinecraftSerializerOptions)
+     */
+    @NotNull
+    public Component serialize(@NotNull ParsedMessage message) {
+        return MinecraftSerializer.INSTANCE.render(message.getNodes(), options);
+    }
+
+    @Override
+    public String toString() {
+        return "MinecraftSerializerPipeline{" +
+                "options=" + options +
+                ", textOnly=" + textOnly +
+                '}';
+    }
+}
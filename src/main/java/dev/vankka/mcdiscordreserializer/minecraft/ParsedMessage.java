@@ -0,0 +1,111 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import dev.vankka.mcdiscordreserializer.rules.DiscordBlockParser;
+import dev.vankka.simpleast.core.node.Node;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A Discord message parsed by {@link MinecraftSerializer#parse(String, MinecraftSerializerOptions)},
+ * which can be serialized any amount of times with different {@link MinecraftSerializerOptions} without being parsed again.
+ * <p>
+ * Rendering does not modify the parsed nodes, so instances can be kept around and serialized from multiple threads.
+ * Edits of the message can be parsed with {@link MinecraftSerializer#parse(ParsedMessage, String, MinecraftSerializerOptions)},
+ * which reuses the nodes of the blocks that didn't change.
+ *
+ * @see MinecraftSerializer#serialize(ParsedMessage, MinecraftSerializerOptions)
+ */
+public final class ParsedMessage {
+
+    private final String message;
+    private final List<Node<Object>> nodes;
+
+    // Only when parsed with block parsing, the nodes of each block and the pool of the rules they were parsed with
+    private final List<DiscordBlockParser.Block> blocks;
+    private final List<List<Node<Object>>> blockNodes;
+    private final ParserPool parserPool;
+
+    ParsedMessage(String message, List<Node<Object>> nodes) {
+        this.message = message;
+        this.nodes = Collections.unmodifiableList(nodes);
+        this.blocks = null;
+        this.blockNodes = null;
+        this.parserPool = null;
+    }
+
+    ParsedMessage(
+            String message,
+            List<DiscordBlockParser.Block> blocks,
+            List<List<Node<Object>>> blockNodes,
+            ParserPool parserPool
+    ) {
+        List<Node<Object>> nodes = new ArrayList<>();
+        for (List<Node<Object>> nodesOfBlock : blockNodes) {
+            nodes.addAll(nodesOfBlock);
+        }
+        this.message = message;
+        this.nodes = Collections.unmodifiableList(nodes);
+        this.blocks = blocks;
+        this.blockNodes = blockNodes;
+        this.parserPool = parserPool;
+    }
+
+    /**
+     * The Discord message that was parsed.
+     * @return the Discord message
+     */
+    @NotNull
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * The top level nodes of the parsed message, these nodes should not be modified.
+     * @return the unmodifiable list of top level nodes
+     */
+    @NotNull
+    public List<Node<Object>> getNodes() {
+        return nodes;
+    }
+
+    List<DiscordBlockParser.Block> getBlocks() {
+        return blocks;
+    }
+
+    List<List<Node<Object>>> getBlockNodes() {
+        return blockNodes;
+    }
+
+    ParserPool getParserPool() {
+        return parserPool;
+    }
+
+    @Override
+    public String toString() {
+        return "ParsedMessage{" +
+                "message='" + message + '\'' +
+                ", nodes=" + nodes +
+                '}';
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import dev.vankka.mcdiscordreserializer.rules.DiscordMarkdownRules;
+import dev.vankka.simpleast.core.node.Node;
+import dev.vankka.simpleast.core.parser.Parser;
+import dev.vankka.simpleast.core.parser.Rule;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * The parser and rules of {@link MinecraftSerializerOptions}, shared by all options derived from the same options
+ * unless the parser or rules are changed.
+ * <p>
+ * {@link Rule}s keep a {@link java.util.regex.Matcher} so a parser and its rules can only be used by one thread at a time.
+ * Without a rules factory every parse locks the parser, with a rules factory an idle parser is taken from the pool
+ * or a new one is created with new rules.
+ */
+final class ParserPool {
+
+    private static final int MAX_IDLE = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final Map<Integer, ParserPool> SHARED = new ConcurrentHashMap<>();
+
+    private final Parser<Object, Node<Object>, Object> parser;
+    private final List<Rule<Object, Node<Object>, Object>> rules;
+    private final Supplier<List<Rule<Object, Node<Object>, Object>>> rulesFactory;
+    private final boolean markdownTextRules;
+    private final Queue<Context> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    ParserPool(
+            Parser<Object, Node<Object>, Object> parser,
+            List<Rule<Object, Node<Object>, Object>> rules,
+            Supplier<List<Rule<Object, Node<Object>, Object>>> rulesFactory
+    ) {
+        this(parser, rules, rulesFactory, false);
+    }
+
+    private ParserPool(
+            Parser<Object, Node<Object>, Object> parser,
+            List<Rule<Object, Node<Object>, Object>> rules,
+            Supplier<List<Rule<Object, Node<Object>, Object>>> rulesFactory,
+            boolean markdownTextRules
+    ) {
+        this.parser = parser;
+        this.markdownTextRules = markdownTextRules;
+        this.rules = rules != null ? Collections.unmodifiableList(rules) : null;
+        this.rulesFactory = rules != null ? rulesFactory : null;
+        if (this.rulesFactory != null) {
+            idle.add(new Context(parser, this.rules));
+            idleCount.set(1);
+        }
+    }
+
+    /**
+     * Gets the pool for the given {@link DiscordMarkdownRules} flags, which is shared by all options using those flags.
+     */
+    static ParserPool shared(int rules) {
+        return SHARED.computeIfAbsent(rules & DiscordMarkdownRules.ALL_RULES, flags -> new ParserPool(
+                new Parser<>(),
+                DiscordMarkdownRules.createRules(flags),
+                () -> DiscordMarkdownRules.createRules(flags),
+                (flags & DiscordMarkdownRules.TEXT) != 0
+        ));
+    }
+
+    /**
+     * If the rules are {@link DiscordMarkdownRules} including the text rule,
+     * which parse text without any {@link dev.vankka.mcdiscordreserializer.rules.CharScanner#MARKDOWN_TRIGGERS} as a single text node.
+     */
+    boolean isMarkdownTextRules() {
+        return markdownTextRules;
+    }
+
+    Parser<Object, Node<Object>, Object> getParser() {
+        return parser;
+    }
+
+    List<Rule<Object, Node<Object>, Object>> getRules() {
+        return rules;
+    }
+
+    Supplier<List<Rule<Object, Node<Object>, Object>>> getRulesFactory() {
+        return rulesFactory;
+    }
+
+    /**
+     * Runs the given function with a parser and rules that no other thread is using.
+     */
+    <T> T parse(BiFunction<Parser<Object, Node<Object>, Object>, List<Rule<Object, Node<Object>, Object>>, T> function) {
+        if (rulesFactory == null) {
+            synchronized (parser) {
+                return function.apply(parser, rules);
+            }
+        }
+
+        Context context = idle.poll();
+        if (context != null) {
+            idleCount.decrementAndGet();
+        } else {
+            context = new Context(new Parser<>(), rulesFactory.get());
+        }
+        try {
+            // Uncontended, but keeps the options' own parser safe from anyone else locking on it
+            synchronized (context.parser) {
+                return function.apply(context.parser, context.rules);
+            }
+        } finally {
+            if (idleCount.incrementAndGet() <= MAX_IDLE) {
+                idle.offer(context);
+            } else {
+                idleCount.decrementAndGet();
+            }
+        }
+    }
+
+    private static class Context {
+
+        private final Parser<Object, Node<Object>, Object> parser;
+        private final List<Rule<Object, Node<Object>, Object>> rules;
+
+        private Context(Parser<Object, Node<Object>, Object> parser, List<Rule<Object, Node<Object>, Object>> rules) {
+            this.parser = parser;
+            this.rules = rules;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes the visible text of a message directly to an {@link Appendable}, without any formatting.
+ * <p>
+ * Exceptions from the {@link Appendable} are thrown as {@link UncheckedIOException}s. Writers are not thread safe.
+ *
+ * @see MinecraftSerializer#serializePlainText(String, MinecraftSerializerOptions, Appendable)
+ * @see dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultPlainTextRenderer
+ */
+public final class PlainTextWriter {
+
+    private final Appendable out;
+    private Component linePrefix;
+
+    /**
+     * Creates a writer that writes to the given {@link Appendable}.
+     * @param out the appendable to write the text to
+     */
+    public PlainTextWriter(@NotNull Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes text.
+     *
+     * @param text the text
+     * @return this writer
+     */
+    @NotNull
+    public PlainTextWriter text(@NotNull CharSequence text) {
+        return text(text, 0, text.length());
+    }
+
+    /**
+     * Writes part of the given text.
+     *
+     * @param text the text
+     * @param start the start index of the part, inclusive
+     * @param end the end index of the part, exclusive
+     * @return this writer
+     */
+    @NotNull
+    public PlainTextWriter text(@NotNull CharSequence text, int start, int end) {
+        try {
+            out.append(text, start, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the text of a {@link Component}.
+     *
+     * @param component the component, only the content of {@link TextComponent}s is written
+     * @return this writer
+     */
+    @NotNull
+    public PlainTextWriter component(@NotNull Component component) {
+        if (component instanceof TextComponent) {
+            text(((TextComponent) component).content());
+        }
+        for (Component child : component.children()) {
+            component(child);
+        }
+        return this;
+    }
+
+    /**
+     * The component that is rendered at the start of every line in the current content, like quote prefixes.
+     * @return the line prefix or {@code null} if lines don't start with anything
+     */
+    @Nullable
+    public Component getLinePrefix() {
+        return linePrefix;
+    }
+
+    /**
+     * Sets the component that is rendered at the start of every line, renderers should restore the previous prefix
+     * after rendering their content.
+     *
+     * @param linePrefix the line prefix or {@code null} if lines don't start with anything
+     * @return the previous line prefix
+     */
+    @Nullable
+    public Component setLinePrefix(@Nullable Component linePrefix) {
+        Component previous = this.linePrefix;
+        this.linePrefix = linePrefix;
+        return previous;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import dev.vankka.mcdiscordreserializer.renderer.NodeRenderer;
+import dev.vankka.mcdiscordreserializer.rules.NodeKind;
+import dev.vankka.simpleast.core.node.Node;
+
+import java.util.function.Function;
+
+/**
+ * The {@code renderWithChildren} function for renderers that write into a single output as they go,
+ * instead of returning a new result for every node.
+ * <p>
+ * Every node is given to the renderers from the options until one returns a non-null result, then to the default renderer.
+ * The renderer that renders a node renders its children too, using this function.
+ * Renderers must not write anything before returning {@code null}.
+ *
+ * @param <O> the type of the output
+ */
+class StreamRenderContext<O> implements Function<Node<Object>, O> {
+
+    private final O output;
+    private final MinecraftSerializerOptions<O> serializerOptions;
+    private final NodeRenderer<O> defaultRenderer;
+
+    StreamRenderContext(O output, MinecraftSerializerOptions<O> serializerOptions, NodeRenderer<O> defaultRenderer) {
+        this.output = output;
+        this.serializerOptions = serializerOptions;
+        this.defaultRenderer = defaultRenderer;
+    }
+
+    @Override
+    public O apply(Node<Object> node) {
+        for (NodeRenderer<O> renderer : serializerOptions.getRenderers(NodeKind.of(node))) {
+            if (renderer.render(output, node, serializerOptions, this) != null) {
+                return output;
+            }
+        }
+        if (defaultRenderer.render(output, node, serializerOptions, this) == null) {
+            throw new IllegalStateException(defaultRenderer.getClass().getSimpleName() + " did not render a node");
+        }
+        return output;
+    }
+}
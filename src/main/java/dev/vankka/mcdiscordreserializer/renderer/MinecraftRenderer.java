@@ -19,19 +19,17 @@
 package dev.vankka.mcdiscordreserializer.renderer;
 
 import dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions;
-import dev.vankka.mcdiscordreserializer.rules.DiscordMarkdownRules;
 import dev.vankka.mcdiscordreserializer.rules.StyleNode;
 import dev.vankka.simpleast.core.node.Node;
 import dev.vankka.simpleast.core.node.TextNode;
-import dev.vankka.simpleast.core.parser.Parser;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Interface for rendering formatting {@link dev.vankka.simpleast.core.node.Node}s into Minecraft
@@ -47,103 +45,16 @@ public interface MinecraftRenderer extends MinecraftNodeRenderer {
         if (node instanceof TextNode) {
             component = ((TextComponent) component).content(((TextNode<?>) node).getContent());
         } else if (node instanceof StyleNode) {
-            List<StyleNode.Style> styles = new ArrayList<>(((StyleNode<?, StyleNode.Style>) node).getStyles());
-            for (StyleNode.Style style : styles) {
-                if (style instanceof StyleNode.MentionStyle) {
-                    StyleNode.MentionStyle mentionStyle = (StyleNode.MentionStyle) style;
-                    String id = mentionStyle.getId();
-                    switch (mentionStyle.getType()) {
-                        case ROLE: {
-                            component = appendRoleMention(component, id);
-                            break;
-                        }
-                        case USER: {
-                            component = appendUserMention(component, id);
-                            break;
-                        }
-                        case CHANNEL: {
-                            component = appendChannelMention(component, id);
-                            break;
-                        }
-                    }
-                } else if (style instanceof StyleNode.EmojiStyle) {
-                    StyleNode.EmojiStyle emojiStyle = (StyleNode.EmojiStyle) style;
-                    component = appendEmoteMention(component, emojiStyle.getName(), emojiStyle.getId());
-                } else if (style instanceof StyleNode.CodeBlockStyle) {
-                    StyleNode.CodeBlockStyle codeBlockStyle = (StyleNode.CodeBlockStyle) style;
-                    component = codeBlock(component, codeBlockStyle.getLanguage());
-                    ((StyleNode<?, StyleNode.Style>) node).getStyles().remove(style);
-                } else if (style instanceof StyleNode.ContentStyle) {
-                    StyleNode.ContentStyle contentStyle = (StyleNode.ContentStyle) style;
-                    switch (contentStyle.getType()) {
-                        case LINK: {
-                            component = appendLink(component, contentStyle.getContent());
-                            break;
-                        }
-                        case QUOTE: {
-                            TextComponent content = Component.empty();
-
-                            Parser<Object, Node<Object>, Object> parser = serializerOptions.getParser();
-                            List<Node<Object>> nodes;
-                            synchronized (parser) {
-                                nodes = parser.parse(
-                                        contentStyle.getContent(),
-                                        new DiscordMarkdownRules.QuoteState(true),
-                                        serializerOptions.getRules(),
-                                        serializerOptions.isDebuggingEnabled()
-                                );
-                            }
-                            for (Node<Object> objectNode : nodes) {
-                                content = content.append(renderWithChildren.apply(objectNode));
-                            }
-
-                            component = appendQuote(component, content);
-                            break;
-                        }
-                        case SPOILER: {
-                            TextComponent content = Component.empty();
-
-                            Parser<Object, Node<Object>, Object> parser = serializerOptions.getParser();
-                            List<Node<Object>> nodes;
-                            synchronized (parser) {
-                                nodes = parser.parse(
-                                        contentStyle.getContent(),
-                                        null,
-                                        serializerOptions.getRules(),
-                                        serializerOptions.isDebuggingEnabled()
-                                );
-                            }
-                            for (Node<Object> objectNode : nodes) {
-                                content = content.append(renderWithChildren.apply(objectNode));
-                            }
-
-                            component = appendSpoiler(component, content);
-                            break;
-                        }
-                    }
-                } else if (style instanceof StyleNode.ItalicStyle) {
-                    component = italics(component);
-                } else if (style instanceof StyleNode.Styles) {
-                    switch ((StyleNode.Styles) style) {
-                        case CODE_STRING: {
-                            component = codeString(component);
-                            ((StyleNode<?, StyleNode.Style>) node).getStyles().remove(style);
-                            break;
-                        }
-                        case BOLD: {
-                            component = bold(component);
-                            break;
-                        }
-                        case UNDERLINE: {
-                            component = underline(component);
-                            break;
-                        }
-                        case STRIKETHROUGH: {
-                            component = strikethrough(component);
-                            break;
-                        }
-                    }
+            List<StyleNode.Style> styles = ((StyleNode<?, StyleNode.Style>) node).getStyles();
+            Supplier<Component> content = () -> {
+                TextComponent children = Component.empty();
+                for (Node<Object> child : node.getChildren()) {
+                    children = children.append(renderWithChildren.apply(child));
                 }
+                return children;
+            };
+            for (StyleNode.Style style : styles) {
+                component = renderStyle(component, style, content);
                 if (component == null) {
                     break;
                 }
@@ -153,6 +64,86 @@ public interface MinecraftRenderer extends MinecraftNodeRenderer {
         return component;
     }
 
+    /**
+     * Renders a single {@link StyleNode.Style} onto the provided {@link Component}.
+     *
+     * @param component the {@link Component} to render the style to
+     * @param style the style to render
+     * @param content renders the content of the node, only used for quotes and spoilers
+     * @return the {@link Component} with the style rendered or {@code null} if this renderer does not process that style
+     */
+    @Nullable
+    default Component renderStyle(@NotNull Component component,
+                                  @NotNull StyleNode.Style style,
+                                  @NotNull Supplier<Component> content) {
+        switch (style.getKind()) {
+            case USER_MENTION:
+                return appendUserMention(component, ((StyleNode.MentionStyle) style).getId());
+            case ROLE_MENTION:
+                return appendRoleMention(component, ((StyleNode.MentionStyle) style).getId());
+            case CHANNEL_MENTION:
+                return appendChannelMention(component, ((StyleNode.MentionStyle) style).getId());
+            case EMOJI: {
+                StyleNode.EmojiStyle emojiStyle = (StyleNode.EmojiStyle) style;
+                return appendEmoteMention(component, emojiStyle.getName(), emojiStyle.getId());
+            }
+            case CODE_BLOCK:
+                return codeBlock(component, ((StyleNode.CodeBlockStyle) style).getLanguage());
+            case LINK:
+                return appendLink(component, ((StyleNode.ContentStyle) style).getContent());
+            case QUOTE:
+                return appendQuote(component, content.get());
+            case SPOILER:
+                return appendSpoiler(component, content.get());
+            case ITALICS:
+                return italics(component);
+            case CODE_STRING:
+                return codeString(component);
+            case BOLD:
+                return bold(component);
+            case UNDERLINE:
+                return underline(component);
+            case STRIKETHROUGH:
+                return strikethrough(component);
+        }
+        return component;
+    }
+
+    /**
+     * Quotes and spoilers render their already parsed content with {@code renderWithChildren}.
+     */
+    @Override
+    default boolean rendersChildren(@NotNull Node<Object> node) {
+        return isContentNode(node, StyleNode.ContentStyle.Type.QUOTE) || isContentNode(node, StyleNode.ContentStyle.Type.SPOILER);
+    }
+
+    /**
+     * Lines inside quotes start with the {@link #quoteLinePrefix()}.
+     */
+    @Override
+    default Component renderLineStart(@NotNull Node<Object> node, @NotNull MinecraftSerializerOptions<Component> serializerOptions) {
+        return isContentNode(node, StyleNode.ContentStyle.Type.QUOTE) ? quoteLinePrefix() : null;
+    }
+
+    /**
+     * Checks if the given node is a {@link StyleNode} with a {@link StyleNode.ContentStyle} of the given type.
+     *
+     * @param node the node
+     * @param type the content type
+     * @return {@code true} if the node has content of the given type
+     */
+    static boolean isContentNode(@NotNull Node<Object> node, @NotNull StyleNode.ContentStyle.Type type) {
+        if (!(node instanceof StyleNode)) {
+            return false;
+        }
+        for (Object style : ((StyleNode<?, ?>) node).getStyles()) {
+            if (style instanceof StyleNode.ContentStyle && ((StyleNode.ContentStyle) style).getType() == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Renders the provided {@link net.kyori.adventure.text.Component} with a link.
      *
@@ -266,6 +257,17 @@ public interface MinecraftRenderer extends MinecraftNodeRenderer {
     @Nullable
     Component appendQuote(@NotNull Component component, @NotNull Component content);
 
+    /**
+     * The prefix for lines inside of quotes, added after every new line while the content of the quote is being rendered.
+     * The first line is not included, {@link #appendQuote(Component, Component)} should add the prefix for it.
+     *
+     * @return the prefix or {@code null} if this renderer does not prefix lines inside quotes
+     */
+    @Nullable
+    default Component quoteLinePrefix() {
+        return null;
+    }
+
     /**
      * Renders a emote mention and appends it to the provided {@link Component}.
      *
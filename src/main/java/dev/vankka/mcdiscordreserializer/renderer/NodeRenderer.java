@@ -19,14 +19,19 @@
 package dev.vankka.mcdiscordreserializer.renderer;
 
 import dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions;
+import dev.vankka.mcdiscordreserializer.rules.NodeKind;
 import dev.vankka.simpleast.core.node.Node;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Set;
 import java.util.function.Function;
 
 /**
  * Interface for rendering {@link dev.vankka.simpleast.core.node.Node}s into the given type.
+ * <p>
+ * Renderers must not modify the nodes they are given,
+ * the same nodes may be rendered multiple times and from multiple threads.
  * @param <O> the type.
  */
 public interface NodeRenderer<O> {
@@ -64,4 +69,42 @@ public interface NodeRenderer<O> {
                                   @NotNull Function<Node<Object>, O> renderWithChildren) {
         return null;
     }
+
+    /**
+     * If this renderer renders the children of the given {@link dev.vankka.simpleast.core.node.Node} by itself
+     * during {@link #render(Object, Node, MinecraftSerializerOptions, Function)} using {@code renderWithChildren},
+     * in which case the children will not be rendered again after it.
+     *
+     * @param node the node
+     * @return {@code true} if this renderer renders the node's children
+     */
+    default boolean rendersChildren(@NotNull Node<Object> node) {
+        return false;
+    }
+
+    /**
+     * Renders the start of a line inside the content of the given {@link dev.vankka.simpleast.core.node.Node},
+     * which is inserted after every new line in the content while it is being rendered.
+     *
+     * @param node the node
+     * @param serializerOptions the serializer options for this render
+     * @return the line start or {@code null} if lines inside this node don't start with anything
+     */
+    @Nullable
+    default O renderLineStart(@NotNull Node<Object> node, @NotNull MinecraftSerializerOptions<O> serializerOptions) {
+        return null;
+    }
+
+    /**
+     * The kinds of nodes this renderer renders, this renderer is not asked to render nodes of other kinds.
+     * Nodes of the kind {@link NodeKind#OTHER} are given to every renderer.
+     * This is only checked once, when the renderer is added to the {@link MinecraftSerializerOptions}.
+     *
+     * @return the kinds of nodes this renderer renders or {@code null} if this renderer may render any kind of node
+     * @see NodeKind#of(Node)
+     */
+    @Nullable
+    default Set<NodeKind> getNodeKinds() {
+        return null;
+    }
 }
@@ -0,0 +1,189 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.renderer.implementation;
+
+import dev.vankka.mcdiscordreserializer.minecraft.MinecraftJsonWriter;
+import dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions;
+import dev.vankka.mcdiscordreserializer.renderer.MinecraftRenderer;
+import dev.vankka.mcdiscordreserializer.renderer.NodeRenderer;
+import dev.vankka.mcdiscordreserializer.rules.StyleNode;
+import dev.vankka.simpleast.core.node.Node;
+import dev.vankka.simpleast.core.node.TextNode;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.Style;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The default renderer for Minecraft chat JSON, writes the same JSON as serializing the {@link Component}
+ * rendered with the {@link DefaultMinecraftRenderer} with adventure's {@code GsonComponentSerializer}.
+ * <p>
+ * Renders the children of every node by itself.
+ *
+ * @see dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializer#serializeJson(String, MinecraftSerializerOptions, Appendable)
+ */
+public class DefaultMinecraftJsonRenderer implements NodeRenderer<MinecraftJsonWriter> {
+
+    /**
+     * The instance of {@link dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftJsonRenderer}.
+     */
+    public static final DefaultMinecraftJsonRenderer INSTANCE = new DefaultMinecraftJsonRenderer();
+
+    private static final TextRendering.Writer<MinecraftJsonWriter> WRITER = new TextRendering.Writer<MinecraftJsonWriter>() {
+        @Override
+        public void text(MinecraftJsonWriter writer, CharSequence text, int start, int end) {
+            writer.text(text.subSequence(start, end));
+        }
+
+        @Override
+        public void component(MinecraftJsonWriter writer, Component component) {
+            writer.component(component);
+        }
+
+        @Override
+        public Component getLinePrefix(MinecraftJsonWriter writer) {
+            return writer.getLinePrefix();
+        }
+
+        @Override
+        public Component setLinePrefix(MinecraftJsonWriter writer, Component linePrefix) {
+            return writer.setLinePrefix(linePrefix);
+        }
+    };
+
+    /**
+     * Creates a new instance of the {@link dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftJsonRenderer} unless you're extending the class you shouldn't use this.
+     * @see #INSTANCE
+     */
+    public DefaultMinecraftJsonRenderer() {
+    }
+
+    @Override
+    public MinecraftJsonWriter render(@NotNull MinecraftJsonWriter writer,
+                                      @NotNull Node<Object> node,
+                                      @NotNull MinecraftSerializerOptions<MinecraftJsonWriter> serializerOptions,
+                                      @NotNull Function<Node<Object>, MinecraftJsonWriter> renderWithChildren) {
+        if (node instanceof TextNode) {
+            CharSequence text = TextRendering.text(node);
+            int firstLineEnd = firstLineEnd(writer, text);
+            if (firstLineEnd != -1) {
+                writer.beginComponent(Style.empty());
+                TextRendering.writeLines(writer, text, firstLineEnd, WRITER);
+                return writer.endComponent(text.subSequence(0, firstLineEnd));
+            }
+            return writer.text(text);
+        }
+
+        List<StyleNode.Style> styles = TextRendering.styles(node);
+        boolean quote = MinecraftRenderer.isContentNode(node, StyleNode.ContentStyle.Type.QUOTE);
+
+        writer.beginComponent(TextRendering.style(styles));
+        String content = null;
+        for (StyleNode.Style style : styles) {
+            switch (style.getKind()) {
+                case USER_MENTION:
+                    writer.text("<@" + ((StyleNode.MentionStyle) style).getId() + ">");
+                    break;
+                case ROLE_MENTION:
+                    writer.text("<@&" + ((StyleNode.MentionStyle) style).getId() + ">");
+                    break;
+                case CHANNEL_MENTION:
+                    writer.text("<#" + ((StyleNode.MentionStyle) style).getId() + ">");
+                    break;
+                case EMOJI:
+                    writer.text(":" + ((StyleNode.EmojiStyle) style).getName() + ":");
+                    break;
+                case LINK: {
+                    String link = ((StyleNode.ContentStyle) style).getContent();
+                    writer.beginComponent(Style.style().clickEvent(ClickEvent.openUrl(link)).build())
+                            .text(link)
+                            .endComponent("");
+                    break;
+                }
+                case QUOTE:
+                    if (content == null) {
+                        content = renderContent(writer, node, quote, renderWithChildren);
+                    }
+                    writer.beginComponent(Style.empty()).component(DefaultMinecraftRenderer.INSTANCE.quoteLinePrefix());
+                    if (!content.isEmpty()) {
+                        writer.beginComponent(Style.empty()).children(content).endComponent("");
+                    }
+                    writer.endComponent("");
+                    break;
+                case SPOILER:
+                    if (content == null) {
+                        content = renderContent(writer, node, quote, renderWithChildren);
+                    }
+                    writer.beginComponent(TextRendering.SPOILER_STYLE, content).children(content).endComponent("");
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        CharSequence text = "";
+        boolean first = true;
+        for (Node<Object> child : TextRendering.children(node)) {
+            if (first && child instanceof TextNode) {
+                // The first text is the text of this component
+                text = TextRendering.text(child);
+                int firstLineEnd = firstLineEnd(writer, text);
+                if (firstLineEnd != -1) {
+                    TextRendering.writeLines(writer, text, firstLineEnd, WRITER);
+                    text = text.subSequence(0, firstLineEnd);
+                }
+            } else if (!TextRendering.isEmptyText(child)) {
+                renderWithChildren.apply(child);
+            }
+            first = false;
+        }
+        return writer.endComponent(text);
+    }
+
+    /**
+     * Renders the children of a quote or spoiler once, so they can be written as many times as needed.
+     */
+    private static String renderContent(
+            MinecraftJsonWriter writer,
+            Node<Object> node,
+            boolean quote,
+            Function<Node<Object>, MinecraftJsonWriter> renderWithChildren
+    ) {
+        writer.startCapture();
+        TextRendering.renderContent(writer, node, quote, WRITER, renderWithChildren);
+        return writer.stopCapture();
+    }
+
+    /**
+     * The end of the first line if there is a line prefix and the text has more than one line,
+     * the lines after it are written as children of the component with the first line as its text.
+     *
+     * @return the end of the first line or {@code -1} if the text is written as is
+     */
+    private static int firstLineEnd(MinecraftJsonWriter writer, CharSequence text) {
+        if (writer.getLinePrefix() == null) {
+            return -1;
+        }
+        int newline = TextRendering.indexOfNewline(text, 0);
+        return newline != -1 ? newline + 1 : -1;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.renderer.implementation;
+
+import dev.vankka.mcdiscordreserializer.minecraft.MinecraftLegacyWriter;
+import dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions;
+import dev.vankka.mcdiscordreserializer.renderer.MinecraftRenderer;
+import dev.vankka.mcdiscordreserializer.renderer.NodeRenderer;
+import dev.vankka.mcdiscordreserializer.rules.StyleNode;
+import dev.vankka.simpleast.core.node.Node;
+import dev.vankka.simpleast.core.node.TextNode;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The default renderer for legacy formatted text, writes the text of the {@link Component}
+ * rendered with the {@link DefaultMinecraftRenderer} with the same colors and decorations.
+ * Links and spoilers don't have click and hover events in legacy text.
+ * <p>
+ * Renders the children of every node by itself.
+ *
+ * @see dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializer#serializeLegacy(String, MinecraftSerializerOptions, Appendable)
+ */
+public class DefaultMinecraftLegacyRenderer implements NodeRenderer<MinecraftLegacyWriter> {
+
+    /**
+     * The instance of {@link dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftLegacyRenderer}.
+     */
+    public static final DefaultMinecraftLegacyRenderer INSTANCE = new DefaultMinecraftLegacyRenderer();
+
+    private static final TextRendering.Writer<MinecraftLegacyWriter> WRITER = new TextRendering.Writer<MinecraftLegacyWriter>() {
+        @Override
+        public void text(MinecraftLegacyWriter writer, CharSequence text, int start, int end) {
+            writer.text(text, start, end);
+        }
+
+        @Override
+        public void component(MinecraftLegacyWriter writer, Component component) {
+            writer.component(component);
+        }
+
+        @Override
+        public Component getLinePrefix(MinecraftLegacyWriter writer) {
+            return writer.getLinePrefix();
+        }
+
+        @Override
+        public Component setLinePrefix(MinecraftLegacyWriter writer, Component linePrefix) {
+            return writer.setLinePrefix(linePrefix);
+        }
+    };
+
+    /**
+     * Creates a new instance of the {@link dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftLegacyRenderer} unless you're extending the class you shouldn't use this.
+     * @see #INSTANCE
+     */
+    public DefaultMinecraftLegacyRenderer() {
+    }
+
+    @Override
+    public MinecraftLegacyWriter render(@NotNull MinecraftLegacyWriter writer,
+                                        @NotNull Node<Object> node,
+                                        @NotNull MinecraftSerializerOptions<MinecraftLegacyWriter> serializerOptions,
+                                        @NotNull Function<Node<Object>, MinecraftLegacyWriter> renderWithChildren) {
+        if (node instanceof TextNode) {
+            return TextRendering.writeText(writer, node, WRITER);
+        }
+
+        List<StyleNode.Style> styles = TextRendering.styles(node);
+        boolean quote = MinecraftRenderer.isContentNode(node, StyleNode.ContentStyle.Type.QUOTE);
+        List<Node<Object>> children = TextRendering.children(node);
+
+        writer.pushStyle(TextRendering.style(styles));
+        int firstTextEnd = TextRendering.writeFirstText(writer, children, WRITER);
+
+        for (StyleNode.Style style : styles) {
+            switch (style.getKind()) {
+                case USER_MENTION:
+                    writer.text("<@").text(((StyleNode.MentionStyle) style).getId()).text(">");
+                    break;
+                case ROLE_MENTION:
+                    writer.text("<@&").text(((StyleNode.MentionStyle) style).getId()).text(">");
+                    break;
+                case CHANNEL_MENTION:
+                    writer.text("<#").text(((StyleNode.MentionStyle) style).getId()).text(">");
+                    break;
+                case EMOJI:
+                    writer.text(":").text(((StyleNode.EmojiStyle) style).getName()).text(":");
+                    break;
+                case LINK:
+                    writer.text(((StyleNode.ContentStyle) style).getContent());
+                    break;
+                case QUOTE:
+                    writer.component(DefaultMinecraftRenderer.INSTANCE.quoteLinePrefix());
+                    TextRendering.renderContent(writer, node, quote, WRITER, renderWithChildren);
+                    break;
+                case SPOILER:
+                    writer.pushStyle(TextRendering.SPOILER_STYLE);
+                    TextRendering.renderContent(writer, node, quote, WRITER, renderWithChildren);
+                    writer.popStyle();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        TextRendering.writeChildren(writer, children, firstTextEnd, WRITER, renderWithChildren);
+        return writer.popStyle();
+    }
+}
@@ -18,16 +18,19 @@
 
 package dev.vankka.mcdiscordreserializer.renderer.implementation;
 
+import dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions;
 import dev.vankka.mcdiscordreserializer.renderer.MinecraftRenderer;
+import dev.vankka.mcdiscordreserializer.rules.StyleNode;
+import dev.vankka.simpleast.core.node.Node;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextReplacementConfig;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.regex.Pattern;
+import java.util.function.Function;
 
 /**
  * The default implementation for the {@link MinecraftRenderer}.
@@ -39,8 +42,6 @@ public class DefaultMinecraftRenderer implements MinecraftRenderer {
      */
     public static final DefaultMinecraftRenderer INSTANCE = new DefaultMinecraftRenderer();
 
-    private static final Pattern PATTERN_NEWLINE = Pattern.compile("\n");
-
     /**
      * Creates a new instance of the {@link dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftRenderer} unless you're extending the class you shouldn't use this.
      * @see #INSTANCE
@@ -48,6 +49,21 @@ public class DefaultMinecraftRenderer implements MinecraftRenderer {
     public DefaultMinecraftRenderer() {
     }
 
+    @Override
+    public Component render(@NotNull Component component,
+                            @NotNull Node<Object> node,
+                            @NotNull MinecraftSerializerOptions<Component> serializerOptions,
+                            @NotNull Function<Node<Object>, Component> renderWithChildren) {
+        // Subclasses may render decorations differently
+        if (node instanceof StyleNode && component.style().isEmpty() && getClass() == DefaultMinecraftRenderer.class) {
+            Style style = TextRendering.decorationStyle(((StyleNode<?, StyleNode.Style>) node).getStyles());
+            if (style != null) {
+                return component.style(style);
+            }
+        }
+        return MinecraftRenderer.super.render(component, node, serializerOptions, renderWithChildren);
+    }
+
     @Override
     public Component link(@NotNull Component part, String link) {
         return part.clickEvent(ClickEvent.openUrl(link));
@@ -97,13 +113,17 @@ public class DefaultMinecraftRenderer implements MinecraftRenderer {
     }
 
     private static final Component QUOTE_PREFIX = Component.text("| ", NamedTextColor.DARK_GRAY, TextDecoration.BOLD);
-    private static final TextReplacementConfig QUOTE_REPLACEMENT = TextReplacementConfig.builder()
-            .match(PATTERN_NEWLINE).replacement(builder -> builder.append(QUOTE_PREFIX)).build();
 
     @Override
     @NotNull
     public Component appendQuote(@NotNull Component component, @NotNull Component content) {
-        return Component.empty().append(QUOTE_PREFIX).append(component.replaceText(QUOTE_REPLACEMENT));
+        return component.append(Component.empty().append(QUOTE_PREFIX).append(content));
+    }
+
+    @Override
+    @NotNull
+    public Component quoteLinePrefix() {
+        return QUOTE_PREFIX;
     }
 
     @Override
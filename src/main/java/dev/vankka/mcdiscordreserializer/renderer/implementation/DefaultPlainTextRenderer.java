@@ -0,0 +1,169 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.renderer.implementation;
+
+import dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions;
+import dev.vankka.mcdiscordreserializer.minecraft.PlainTextWriter;
+import dev.vankka.mcdiscordreserializer.renderer.MinecraftRenderer;
+import dev.vankka.mcdiscordreserializer.renderer.NodeRenderer;
+import dev.vankka.mcdiscordreserializer.rules.StyleNode;
+import dev.vankka.simpleast.core.node.Node;
+import dev.vankka.simpleast.core.node.TextNode;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The default renderer for plain text, writes the text of the {@link Component}
+ * rendered with the {@link DefaultMinecraftRenderer} without any formatting, spoilers are written as is.
+ * <p>
+ * Extend this class and add it to the {@link MinecraftSerializerOptions} to change how mentions and emotes are written.
+ * Renders the children of every node by itself.
+ *
+ * @see dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializer#serializePlainText(String, MinecraftSerializerOptions, Appendable)
+ */
+public class DefaultPlainTextRenderer implements NodeRenderer<PlainTextWriter> {
+
+    /**
+     * The instance of {@link dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultPlainTextRenderer}.
+     */
+    public static final DefaultPlainTextRenderer INSTANCE = new DefaultPlainTextRenderer();
+
+    private static final TextRendering.Writer<PlainTextWriter> WRITER = new TextRendering.Writer<PlainTextWriter>() {
+        @Override
+        public void text(PlainTextWriter writer, CharSequence text, int start, int end) {
+            writer.text(text, start, end);
+        }
+
+        @Override
+        public void component(PlainTextWriter writer, Component component) {
+            writer.component(component);
+        }
+
+        @Override
+        public Component getLinePrefix(PlainTextWriter writer) {
+            return writer.getLinePrefix();
+        }
+
+        @Override
+        public Component setLinePrefix(PlainTextWriter writer, Component linePrefix) {
+            return writer.setLinePrefix(linePrefix);
+        }
+    };
+
+    /**
+     * Creates a new instance of the {@link dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultPlainTextRenderer} unless you're extending the class you shouldn't use this.
+     * @see #INSTANCE
+     */
+    public DefaultPlainTextRenderer() {
+    }
+
+    @Override
+    public PlainTextWriter render(@NotNull PlainTextWriter writer,
+                                  @NotNull Node<Object> node,
+                                  @NotNull MinecraftSerializerOptions<PlainTextWriter> serializerOptions,
+                                  @NotNull Function<Node<Object>, PlainTextWriter> renderWithChildren) {
+        if (node instanceof TextNode) {
+            return TextRendering.writeText(writer, node, WRITER);
+        }
+
+        List<StyleNode.Style> styles = TextRendering.styles(node);
+        boolean quote = MinecraftRenderer.isContentNode(node, StyleNode.ContentStyle.Type.QUOTE);
+        List<Node<Object>> children = TextRendering.children(node);
+
+        int firstTextEnd = TextRendering.writeFirstText(writer, children, WRITER);
+
+        for (StyleNode.Style style : styles) {
+            switch (style.getKind()) {
+                case USER_MENTION:
+                    appendUserMention(writer, ((StyleNode.MentionStyle) style).getId());
+                    break;
+                case ROLE_MENTION:
+                    appendRoleMention(writer, ((StyleNode.MentionStyle) style).getId());
+                    break;
+                case CHANNEL_MENTION:
+                    appendChannelMention(writer, ((StyleNode.MentionStyle) style).getId());
+                    break;
+                case EMOJI: {
+                    StyleNode.EmojiStyle emojiStyle = (StyleNode.EmojiStyle) style;
+                    appendEmoteMention(writer, emojiStyle.getName(), emojiStyle.getId());
+                    break;
+                }
+                case LINK:
+                    writer.text(((StyleNode.ContentStyle) style).getContent());
+                    break;
+                case QUOTE:
+                    writer.component(DefaultMinecraftRenderer.INSTANCE.quoteLinePrefix());
+                    TextRendering.renderContent(writer, node, quote, WRITER, renderWithChildren);
+                    break;
+                case SPOILER:
+                    TextRendering.renderContent(writer, node, quote, WRITER, renderWithChildren);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        TextRendering.writeChildren(writer, children, firstTextEnd, WRITER, renderWithChildren);
+        return writer;
+    }
+
+    /**
+     * Writes a user mention.
+     *
+     * @param writer the writer
+     * @param id the id of the user
+     */
+    public void appendUserMention(@NotNull PlainTextWriter writer, @NotNull String id) {
+        writer.text("<@").text(id).text(">");
+    }
+
+    /**
+     * Writes a role mention.
+     *
+     * @param writer the writer
+     * @param id the id of the role
+     */
+    public void appendRoleMention(@NotNull PlainTextWriter writer, @NotNull String id) {
+        writer.text("<@&").text(id).text(">");
+    }
+
+    /**
+     * Writes a channel mention.
+     *
+     * @param writer the writer
+     * @param id the id of the channel
+     */
+    public void appendChannelMention(@NotNull PlainTextWriter writer, @NotNull String id) {
+        writer.text("<#").text(id).text(">");
+    }
+
+    /**
+     * Writes an emote mention.
+     *
+     * @param writer the writer
+     * @param name the name of the emote
+     * @param id the id of the emote
+     */
+    public void appendEmoteMention(@NotNull PlainTextWriter writer, @NotNull String name, @NotNull String id) {
+        writer.text(":").text(name).text(":");
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package dev.vankka.mcdiscordreserializer.renderer.implementation;
+
+import dev.vankka.mcdiscordreserializer.renderer.MinecraftRenderer;
+import dev.vankka.mcdiscordreserializer.rules.StyleNode;
+import dev.vankka.mcdiscordreserializer.rules.TextSliceNode;
+import dev.vankka.simpleast.core.node.Node;
+import dev.vankka.simpleast.core.node.TextNode;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The rendering shared by the renderers that write the output of the {@link DefaultMinecraftRenderer} directly.
+ */
+final class TextRendering {
+
+    static final Style SPOILER_STYLE = Style.style(NamedTextColor.DARK_GRAY, TextDecoration.OBFUSCATED);
+
+    private static final int BOLD = 1;
+    private static final int ITALIC = 1 << 1;
+    private static final int UNDERLINED = 1 << 2;
+    private static final int STRIKETHROUGH = 1 << 3;
+    private static final int CODE = 1 << 4;
+
+    /**
+     * The styles for every combination of decorations and the code color, indexed by the flags above.
+     */
+    private static final Style[] DECORATION_STYLES = new Style[CODE << 1];
+
+    static {
+        for (int flags = 0; flags < DECORATION_STYLES.length; flags++) {
+            Style.Builder builder = Style.style();
+            if ((flags & BOLD) != 0) {
+                builder.decoration(TextDecoration.BOLD, true);
+            }
+            if ((flags & ITALIC) != 0) {
+                builder.decoration(TextDecoration.ITALIC, true);
+            }
+            if ((flags & UNDERLINED) != 0) {
+                builder.decoration(TextDecoration.UNDERLINED, true);
+            }
+            if ((flags & STRIKETHROUGH) != 0) {
+                builder.decoration(TextDecoration.STRIKETHROUGH, true);
+            }
+            if ((flags & CODE) != 0) {
+                builder.color(NamedTextColor.DARK_GRAY);
+            }
+            DECORATION_STYLES[flags] = builder.build();
+        }
+    }
+
+    private TextRendering() {}
+
+    /**
+     * The writer operations needed to write text and line prefixes.
+     *
+     * @param <W> the writer type
+     */
+    interface Writer<W> {
+        void text(W writer, CharSequence text, int start, int end);
+
+        void component(W writer, Component component);
+
+        @Nullable
+        Component getLinePrefix(W writer);
+
+        @Nullable
+        Component setLinePrefix(W writer, @Nullable Component linePrefix);
+    }
+
+    static List<StyleNode.Style> styles(Node<Object> node) {
+        return node instanceof StyleNode
+               ? ((StyleNode<?, StyleNode.Style>) node).getStyles()
+               : Collections.emptyList();
+    }
+
+    /**
+     * The children of the node that are rendered after its styles, quotes and spoilers render their children themselves.
+     */
+    static List<Node<Object>> children(Node<Object> node) {
+        List<Node<Object>> children = node.getChildren();
+        if (children == null
+                || MinecraftRenderer.isContentNode(node, StyleNode.ContentStyle.Type.QUOTE)
+                || MinecraftRenderer.isContentNode(node, StyleNode.ContentStyle.Type.SPOILER)) {
+            return Collections.emptyList();
+        }
+        return children;
+    }
+
+    /**
+     * Gets the style for the given styles if they are only decorations and code, which can be applied to a
+     * {@link Component} at once instead of one at a time. The returned styles are shared instances.
+     *
+     * @return the style or {@code null} if the styles include something else
+     */
+    @Nullable
+    static Style decorationStyle(List<? extends StyleNode.Style> styles) {
+        int flags = 0;
+        for (StyleNode.Style style : styles) {
+            switch (style.getKind()) {
+                case BOLD:
+                    flags |= BOLD;
+                    break;
+                case ITALICS:
+                    flags |= ITALIC;
+                    break;
+                case UNDERLINE:
+                    flags |= UNDERLINED;
+                    break;
+                case STRIKETHROUGH:
+                    flags |= STRIKETHROUGH;
+                    break;
+                case CODE_STRING:
+                case CODE_BLOCK:
+                    flags |= CODE;
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return DECORATION_STYLES[flags];
+    }
+
+    /**
+     * The style for the decorations and code in the given styles, the same as the {@link DefaultMinecraftRenderer} uses.
+     */
+    static Style style(List<StyleNode.Style> styles) {
+        Style style = decorationStyle(styles);
+        if (style != null) {
+            return style;
+        }
+
+        Style.Builder builder = Style.style();
+        for (StyleNode.Style nodeStyle : styles) {
+            switch (nodeStyle.getKind()) {
+                case BOLD:
+                    builder.decoration(TextDecoration.BOLD, true);
+                    break;
+                case ITALICS:
+                    builder.decoration(TextDecoration.ITALIC, true);
+                    break;
+                case UNDERLINE:
+                    builder.decoration(TextDecoration.UNDERLINED, true);
+                    break;
+                case STRIKETHROUGH:
+                    builder.decoration(TextDecoration.STRIKETHROUGH, true);
+                    break;
+                case CODE_STRING:
+                case CODE_BLOCK:
+                    builder.color(NamedTextColor.DARK_GRAY);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes a text node, each line with the line prefix before it.
+     */
+    static <W> W writeText(W writer, Node<?> node, Writer<W> ops) {
+        CharSequence text = text(node);
+        writeLines(writer, text, writeFirstLine(writer, text, ops), ops);
+        return writer;
+    }
+
+    /**
+     * Writes the first line of the first child if it is text, which comes before anything added by the styles.
+     *
+     * @return the end of the written text or {@code -1} if the first child isn't text
+     * @see #writeChildren(Object, List, int, Writer, Function)
+     */
+    static <W> int writeFirstText(W writer, List<Node<Object>> children, Writer<W> ops) {
+        if (children.isEmpty() || !(children.get(0) instanceof TextNode)) {
+            return -1;
+        }
+        return writeFirstLine(writer, text(children.get(0)), ops);
+    }
+
+    /**
+     * Writes the children, continuing the first child from where {@link #writeFirstText(Object, List, Writer)} stopped.
+     */
+    static <W> void writeChildren(
+            W writer,
+            List<Node<Object>> children,
+            int firstTextEnd,
+            Writer<W> ops,
+            Function<Node<Object>, W> renderWithChildren
+    ) {
+        for (int index = 0; index < children.size(); index++) {
+            Node<Object> child = children.get(index);
+            if (index == 0 && firstTextEnd != -1) {
+                writeLines(writer, text(child), firstTextEnd, ops);
+            } else {
+                renderWithChildren.apply(child);
+            }
+        }
+    }
+
+    /**
+     * Renders the children of a quote or spoiler, with the quote line prefix for quotes.
+     */
+    static <W> void renderContent(
+            W writer,
+            Node<Object> node,
+            boolean quote,
+            Writer<W> ops,
+            Function<Node<Object>, W> renderWithChildren
+    ) {
+        Component previousLinePrefix = quote
+                                       ? ops.setLinePrefix(writer, DefaultMinecraftRenderer.INSTANCE.quoteLinePrefix())
+                                       : ops.getLinePrefix(writer);
+        List<Node<Object>> children = node.getChildren();
+        if (children != null) {
+            for (Node<Object> child : children) {
+                if (!isEmptyText(child)) {
+                    renderWithChildren.apply(child);
+                }
+            }
+        }
+        ops.setLinePrefix(writer, previousLinePrefix);
+    }
+
+    /**
+     * Writes the text up to and including the first new line if there is a line prefix, otherwise the entire text.
+     *
+     * @return the end of the written text
+     */
+    static <W> int writeFirstLine(W writer, CharSequence text, Writer<W> ops) {
+        int end = ops.getLinePrefix(writer) != null ? indexOfNewline(text, 0) + 1 : 0;
+        if (end == 0) {
+            end = text.length();
+        }
+        ops.text(writer, text, 0, end);
+        return end;
+    }
+
+    /**
+     * Writes the lines of the text after the given index, each with the line prefix before it.
+     */
+    static <W> void writeLines(W writer, CharSequence text, int start, Writer<W> ops) {
+        Component linePrefix = ops.getLinePrefix(writer);
+        if (linePrefix == null) {
+            return;
+        }
+
+        while (start > 0 && text.charAt(start - 1) == '\n') {
+            ops.component(writer, linePrefix);
+            int newline = indexOfNewline(text, start);
+            int end = newline != -1 ? newline + 1 : text.length();
+            if (end > start) {
+                ops.text(writer, text, start, end);
+            }
+            if (newline == -1) {
+                break;
+            }
+            start = end;
+        }
+    }
+
+    static int indexOfNewline(CharSequence text, int from) {
+        for (int index = from; index < text.length(); index++) {
+            if (text.charAt(index) == '\n') {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    static CharSequence text(Node<?> node) {
+        if (node instanceof TextSliceNode) {
+            return ((TextSliceNode<?>) node).getSlice();
+        }
+        return ((TextNode<?>) node).getContent();
+    }
+
+    /**
+     * Appending an empty text component doesn't do anything.
+     */
+    static boolean isEmptyText(Node<?> node) {
+        return node instanceof TextNode && text(node).length() == 0;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.rules;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Finds the first of a small set of ASCII characters in text, like the characters that need escaping in markdown.
+ * <p>
+ * Characters are checked one at a time against a bit set of the characters. On Java 17+ the multi-release jar
+ * checks long {@link String}s many characters at a time with the {@code jdk.incubator.vector} API,
+ * when the JVM was started with {@code --add-modules jdk.incubator.vector}.
+ * Scanners are immutable and thread safe.
+ */
+public final class CharScanner {
+
+    /**
+     * The characters {@link dev.vankka.mcdiscordreserializer.discord.DiscordSerializer} escapes in markdown.
+     */
+    public static final CharScanner MARKDOWN_ESCAPES = new CharScanner("*~_`|:[");
+
+    /**
+     * The characters that the {@link DiscordMarkdownRules} (other than the text rule) start or depend on,
+     * text without any of them is parsed as a single text node.
+     */
+    public static final CharScanner MARKDOWN_TRIGGERS = new CharScanner("\\\n*_~|`<>:");
+
+    // Shorter text doesn't fill enough vectors to make up for copying it out of the string
+    private static final int VECTOR_THRESHOLD = 64;
+
+    private final String characters;
+    // Bit set of the characters, low for 0-63 and high for 64-127
+    private final long low;
+    private final long high;
+    // null if vectorized scans are not available
+    private final short[] vectorCharacters;
+
+    /**
+     * Creates a scanner for the given characters.
+     *
+     * @param characters the characters to find
+     * @throws IllegalArgumentException if there are no characters or a character is not ASCII
+     */
+    public CharScanner(@NotNull String characters) {
+        if (characters.isEmpty()) {
+            throw new IllegalArgumentException("No characters to scan for");
+        }
+
+        long low = 0;
+        long high = 0;
+        for (int index = 0; index < characters.length(); index++) {
+            char character = characters.charAt(index);
+            if (character >= 128) {
+                throw new IllegalArgumentException("Not an ASCII character: " + character);
+            }
+            if (character < 64) {
+                low |= 1L << character;
+            } else {
+                high |= 1L << (character - 64);
+            }
+        }
+        this.characters = characters;
+        this.low = low;
+        this.high = high;
+        this.vectorCharacters = VectorSupport.characters(characters);
+    }
+
+    /**
+     * The characters this scanner finds.
+     * @return the characters
+     */
+    @NotNull
+    public String getCharacters() {
+        return characters;
+    }
+
+    /**
+     * Checks if the given character is one of the characters this scanner finds.
+     *
+     * @param character the character
+     * @return {@code true} if the character is found by this scanner
+     */
+    public boolean matches(char character) {
+        if (character < 64) {
+            return (low & (1L << character)) != 0;
+        }
+        return character < 128 && (high & (1L << (character - 64))) != 0;
+    }
+
+    /**
+     * Finds the first of the characters in the text.
+     *
+     * @param text the text
+     * @return the index of the first character or {@code -1} if the text has none of the characters
+     */
+    public int indexOf(@NotNull CharSequence text) {
+        return indexOf(text, 0);
+    }
+
+    /**
+     * Finds the first of the characters in the text, starting from the given index.
+     *
+     * @param text the text
+     * @param fromIndex the index to start from, inclusive
+     * @return the index of the first character or {@code -1} if the rest of the text has none of the characters
+     */
+    public int indexOf(@NotNull CharSequence text, int fromIndex) {
+        int length = text.length();
+        int from = Math.max(fromIndex, 0);
+        if (vectorCharacters != null && text instanceof String && length - from >= VECTOR_THRESHOLD) {
+            return VectorSupport.indexOf(vectorCharacters, this, (String) text, from);
+        }
+
+        for (int index = from; index < length; index++) {
+            if (matches(text.charAt(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if the text has any of the characters.
+     *
+     * @param text the text
+     * @return {@code true} if the text has at least one of the characters
+     */
+    public boolean containsAny(@NotNull CharSequence text) {
+        return indexOf(text, 0) != -1;
+    }
+
+    /**
+     * Puts the escape character before each of the characters in the text, the text is scanned only once.
+     *
+     * @param text the text
+     * @param escape the character to put before the characters
+     * @return the escaped text, or the given text if it has none of the characters
+     */
+    @NotNull
+    public String escape(@NotNull String text, char escape) {
+        int index = indexOf(text, 0);
+        if (index == -1) {
+            return text;
+        }
+
+        int length = text.length();
+        // Copied once for the rest of the vectorized scan, instead of once per found character
+        char[] chars = vectorCharacters != null && length - index >= VECTOR_THRESHOLD ? text.toCharArray() : null;
+        StringBuilder builder = new StringBuilder(length + 16);
+        int start = 0;
+        do {
+            builder.append(text, start, index).append(escape).append(text.charAt(index));
+            start = index + 1;
+            index = chars != null
+                    ? VectorSupport.indexOf(vectorCharacters, this, chars, start, length)
+                    : indexOf(text, start);
+        } while (index != -1);
+        return builder.append(text, start, length).toString();
+    }
+}
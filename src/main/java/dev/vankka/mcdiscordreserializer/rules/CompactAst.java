@@ -0,0 +1,422 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.rules;
+
+import dev.vankka.simpleast.core.node.Node;
+import dev.vankka.simpleast.core.node.TextNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parsed Discord message stored in flat arrays instead of a tree of {@link Node} objects.
+ * <p>
+ * Nodes are stored depth first, each node has a kind, a parent index, a text range and a style id.
+ * The text of all text nodes is stored in one string and identical style lists are only stored once.
+ * Instances are immutable, use {@link #cursor()} to walk the nodes.
+ * <p>
+ * A compact AST is created from the nodes of a parse, it reduces the memory of parsed messages that are kept
+ * but not the allocations of parsing itself.
+ */
+public final class CompactAst {
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private final byte[] kinds;
+    private final int[] parents;
+    private final int[] ends;
+    private final int[] textStarts;
+    private final int[] textEnds;
+    private final int[] styleIds;
+    private final Object[] styles;
+    private final String text;
+
+    private CompactAst(byte[] kinds, int[] parents, int[] ends, int[] textStarts, int[] textEnds,
+                       int[] styleIds, Object[] styles, String text) {
+        this.kinds = kinds;
+        this.parents = parents;
+        this.ends = ends;
+        this.textStarts = textStarts;
+        this.textEnds = textEnds;
+        this.styleIds = styleIds;
+        this.styles = styles;
+        this.text = text;
+    }
+
+    /**
+     * Creates a compact AST from the given top level nodes.
+     * {@link TextNode}s and {@link StyleNode}s are stored in the arrays,
+     * any other nodes are kept as they are (including their children) as {@link Kind#OTHER} nodes.
+     *
+     * @param nodes the top level nodes of a parse
+     * @return the compact AST
+     */
+    @NotNull
+    public static CompactAst of(@NotNull List<? extends Node<?>> nodes) {
+        int[] counts = new int[2];
+        count(nodes, counts);
+
+        Builder builder = new Builder(counts[0], counts[1]);
+        for (Node<?> node : nodes) {
+            builder.add(node, -1);
+        }
+        return builder.build();
+    }
+
+    private static void count(List<? extends Node<?>> nodes, int[] counts) {
+        for (Node<?> node : nodes) {
+            counts[0]++;
+            if (node instanceof TextSliceNode) {
+                counts[1] += ((TextSliceNode<?>) node).getSlice().length();
+            } else if (node instanceof TextNode) {
+                counts[1] += ((TextNode<?>) node).getContent().length();
+            } else if (node instanceof StyleNode) {
+                List<? extends Node<?>> children = node.getChildren();
+                if (children != null) {
+                    count(children, counts);
+                }
+            }
+        }
+    }
+
+    /**
+     * The amount of nodes in this AST.
+     * @return the amount of nodes
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    /**
+     * The text of all the text nodes in this AST, text nodes reference ranges of this string.
+     * @return the text
+     */
+    @NotNull
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Creates a new cursor, positioned before the first top level node.
+     * @return a new cursor
+     */
+    @NotNull
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Creates a {@link Node} tree from this AST, for use with APIs that take nodes.
+     * The nodes are new instances each time, the style lists are shared and unmodifiable.
+     *
+     * @return the top level nodes
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <R> List<Node<R>> toNodes() {
+        List<Node<R>> roots = new ArrayList<>();
+        Node<R>[] created = new Node[kinds.length];
+        for (int index = 0; index < kinds.length; index++) {
+            Node<R> node;
+            switch (KINDS[kinds[index]]) {
+                case TEXT:
+                    node = new TextSliceNode<>(new TextSlice(text, textStarts[index], textEnds[index]));
+                    break;
+                case STYLE:
+                    node = new StyleNode<>(styleList(index));
+                    break;
+                default:
+                    node = (Node<R>) styles[styleIds[index]];
+                    break;
+            }
+            created[index] = node;
+
+            int parent = parents[index];
+            if (parent == -1) {
+                roots.add(node);
+            } else {
+                created[parent].addChild(node);
+            }
+        }
+        return roots;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StyleNode.Style> styleList(int index) {
+        return (List<StyleNode.Style>) styles[styleIds[index]];
+    }
+
+    @Override
+    public String toString() {
+        return "CompactAst{" +
+                "size=" + kinds.length +
+                ", text='" + text + '\'' +
+                '}';
+    }
+
+    /**
+     * The kind of a node in a {@link CompactAst}.
+     */
+    public enum Kind {
+        /**
+         * A text node, see {@link Cursor#getText()}.
+         */
+        TEXT,
+        /**
+         * A style node, see {@link Cursor#getStyles()}.
+         */
+        STYLE,
+        /**
+         * Any other node, see {@link Cursor#getNode()}.
+         */
+        OTHER
+    }
+
+    /**
+     * A position in a {@link CompactAst}. Cursors are cheap and not thread safe, create one per walk.
+     */
+    public final class Cursor {
+
+        private int index = -1;
+
+        private Cursor() {}
+
+        /**
+         * The index of the current node, {@code -1} if the cursor is at the root (before any node).
+         * @return the index of the current node
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Moves this cursor to the given index.
+         * @param index the index of a node or {@code -1} for the root
+         */
+        public void moveTo(int index) {
+            if (index < -1 || index >= kinds.length) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            this.index = index;
+        }
+
+        /**
+         * Moves to the first child of the current node, from the root this is the first top level node.
+         * @return {@code true} if the cursor moved
+         */
+        public boolean firstChild() {
+            int child = index + 1;
+            if (child < kinds.length && parents[child] == index) {
+                index = child;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Moves to the next sibling of the current node.
+         * @return {@code true} if the cursor moved
+         */
+        public boolean nextSibling() {
+            if (index == -1) {
+                return false;
+            }
+            int sibling = ends[index];
+            if (sibling < kinds.length && parents[sibling] == parents[index]) {
+                index = sibling;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Moves to the parent of the current node, top level nodes move to the root.
+         * @return {@code true} if the cursor moved
+         */
+        public boolean parent() {
+            if (index == -1) {
+                return false;
+            }
+            index = parents[index];
+            return true;
+        }
+
+        /**
+         * The kind of the current node.
+         * @return the kind
+         */
+        @NotNull
+        public Kind getKind() {
+            checkNode();
+            return KINDS[kinds[index]];
+        }
+
+        /**
+         * The text of the current node, without copying.
+         * @return the text or {@code null} if the current node is not a {@link Kind#TEXT} node
+         */
+        @Nullable
+        public TextSlice getText() {
+            checkNode();
+            if (kinds[index] != Kind.TEXT.ordinal()) {
+                return null;
+            }
+            return new TextSlice(text, textStarts[index], textEnds[index]);
+        }
+
+        /**
+         * The start index of the text of the current node in {@link CompactAst#getText()}.
+         * @return the start index or {@code -1} if the current node is not a {@link Kind#TEXT} node
+         */
+        public int getTextStart() {
+            checkNode();
+            return textStarts[index];
+        }
+
+        /**
+         * The end index of the text of the current node in {@link CompactAst#getText()}.
+         * @return the end index or {@code -1} if the current node is not a {@link Kind#TEXT} node
+         */
+        public int getTextEnd() {
+            checkNode();
+            return textEnds[index];
+        }
+
+        /**
+         * The style id of the current node, nodes with the same style id have the same styles.
+         * @return the style id or {@code -1} if the current node is not a {@link Kind#STYLE} node
+         */
+        public int getStyleId() {
+            checkNode();
+            return kinds[index] == Kind.STYLE.ordinal() ? styleIds[index] : -1;
+        }
+
+        /**
+         * The styles of the current node.
+         * @return an unmodifiable list of styles or {@code null} if the current node is not a {@link Kind#STYLE} node
+         */
+        @Nullable
+        public List<StyleNode.Style> getStyles() {
+            checkNode();
+            if (kinds[index] != Kind.STYLE.ordinal()) {
+                return null;
+            }
+            return styleList(index);
+        }
+
+        /**
+         * The node that was kept as is.
+         * @return the node or {@code null} if the current node is not a {@link Kind#OTHER} node
+         */
+        @Nullable
+        @SuppressWarnings("unchecked")
+        public <R> Node<R> getNode() {
+            checkNode();
+            if (kinds[index] != Kind.OTHER.ordinal()) {
+                return null;
+            }
+            return (Node<R>) styles[styleIds[index]];
+        }
+
+        private void checkNode() {
+            if (index == -1) {
+                throw new IllegalStateException("Cursor is at the root");
+            }
+        }
+    }
+
+    private static class Builder {
+
+        private final byte[] kinds;
+        private final int[] parents;
+        private final int[] ends;
+        private final int[] textStarts;
+        private final int[] textEnds;
+        private final int[] styleIds;
+        private final List<Object> styles = new ArrayList<>();
+        private final Map<List<?>, Integer> styleIdsByList = new HashMap<>();
+        private final StringBuilder text;
+        private int size;
+
+        private Builder(int nodeCount, int textLength) {
+            this.kinds = new byte[nodeCount];
+            this.parents = new int[nodeCount];
+            this.ends = new int[nodeCount];
+            this.textStarts = new int[nodeCount];
+            this.textEnds = new int[nodeCount];
+            this.styleIds = new int[nodeCount];
+            this.text = new StringBuilder(textLength);
+        }
+
+        private void add(Node<?> node, int parent) {
+            int index = size++;
+            parents[index] = parent;
+            textStarts[index] = -1;
+            textEnds[index] = -1;
+            styleIds[index] = -1;
+
+            if (node instanceof TextNode) {
+                kinds[index] = (byte) Kind.TEXT.ordinal();
+                textStarts[index] = text.length();
+                if (node instanceof TextSliceNode) {
+                    TextSlice slice = ((TextSliceNode<?>) node).getSlice();
+                    text.append(slice.getSource(), slice.getStart(), slice.getEnd());
+                } else {
+                    text.append(((TextNode<?>) node).getContent());
+                }
+                textEnds[index] = text.length();
+            } else if (node instanceof StyleNode) {
+                kinds[index] = (byte) Kind.STYLE.ordinal();
+                styleIds[index] = styleId(((StyleNode<?, ?>) node).getStyles());
+
+                List<? extends Node<?>> children = node.getChildren();
+                if (children != null) {
+                    for (Node<?> child : children) {
+                        add(child, index);
+                    }
+                }
+            } else {
+                kinds[index] = (byte) Kind.OTHER.ordinal();
+                styleIds[index] = styles.size();
+                styles.add(node);
+            }
+            ends[index] = size;
+        }
+
+        private int styleId(List<?> nodeStyles) {
+            Integer id = styleIdsByList.get(nodeStyles);
+            if (id == null) {
+                id = styles.size();
+                List<?> copy = Collections.unmodifiableList(new ArrayList<>(nodeStyles));
+                styles.add(copy);
+                styleIdsByList.put(copy, id);
+            }
+            return id;
+        }
+
+        private CompactAst build() {
+            return new CompactAst(kinds, parents, ends, textStarts, textEnds, styleIds, styles.toArray(), text.toString());
+        }
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.rules;
+
+import dev.vankka.simpleast.core.node.Node;
+import dev.vankka.simpleast.core.parser.Parser;
+import dev.vankka.simpleast.core.parser.Rule;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Block level parsing for Discord messages.
+ * <p>
+ * Indexes the line starts of a message once and finds code blocks and quotes in a single linear scan,
+ * the inline rules are then only ran on the text between those blocks and code block contents are never inline parsed.
+ *
+ * @see dev.vankka.mcdiscordreserializer.minecraft.MinecraftSerializerOptions#isBlockParsingEnabled()
+ */
+public final class DiscordBlockParser {
+
+    private static final String CODE_FENCE = "```";
+    private static final String QUOTE_PREFIX = "> ";
+
+    private DiscordBlockParser() {}
+
+    /**
+     * Parses the given Discord message, code blocks and quotes are handled by this block parser
+     * while everything else is parsed with the given parser and rules.
+     *
+     * @param source the Discord message
+     * @param parser the parser for inline content
+     * @param rules the rules for inline content, {@code null} to use the parser's default rules
+     * @param debug if debugging should be enabled for the parser
+     * @return the top level nodes for the message
+     */
+    public static <R> List<Node<R>> parse(
+            @NotNull String source,
+            @NotNull Parser<R, Node<R>, Object> parser,
+            @Nullable List<Rule<R, Node<R>, Object>> rules,
+            boolean debug
+    ) {
+        List<Node<R>> nodes = new ArrayList<>();
+        parse(source, scan(source, true), parser, rules, debug, nodes);
+        return nodes;
+    }
+
+    private static <R> void parse(
+            String source,
+            List<Block> blocks,
+            Parser<R, Node<R>, Object> parser,
+            List<Rule<R, Node<R>, Object>> rules,
+            boolean debug,
+            List<Node<R>> nodes
+    ) {
+        for (Block block : blocks) {
+            parseBlock(source, block, parser, rules, debug, nodes);
+        }
+    }
+
+    /**
+     * Parses a single block from {@link #scan(String)}, blocks are parsed independently of each other
+     * so the nodes for a block only depend on the content of that block.
+     *
+     * @param source the Discord message
+     * @param block the block in the message
+     * @param parser the parser for inline content
+     * @param rules the rules for inline content, {@code null} to use the parser's default rules
+     * @param debug if debugging should be enabled for the parser
+     * @return the nodes for the block
+     */
+    public static <R> List<Node<R>> parseBlock(
+            @NotNull String source,
+            @NotNull Block block,
+            @NotNull Parser<R, Node<R>, Object> parser,
+            @Nullable List<Rule<R, Node<R>, Object>> rules,
+            boolean debug
+    ) {
+        List<Node<R>> nodes = new ArrayList<>();
+        parseBlock(source, block, parser, rules, debug, nodes);
+        return nodes;
+    }
+
+    private static <R> void parseBlock(
+            String source,
+            Block block,
+            Parser<R, Node<R>, Object> parser,
+            List<Rule<R, Node<R>, Object>> rules,
+            boolean debug,
+            List<Node<R>> nodes
+    ) {
+        switch (block.getType()) {
+            case TEXT: {
+                // Quotes have already been found, they cannot start in the middle of a line
+                nodes.addAll(parser.parse(
+                        new TextSlice(source, block.getStart(), block.getEnd()),
+                        new DiscordMarkdownRules.QuoteState(true),
+                        rules,
+                        debug
+                ));
+                break;
+            }
+            case CODE_BLOCK: {
+                nodes.add(StyleNode.createWithText(
+                        new TextSlice(source, block.getContentStart(), block.getContentEnd()),
+                        Collections.singletonList(new StyleNode.CodeBlockStyle(block.getLanguage()))
+                ));
+                break;
+            }
+            case QUOTE: {
+                String content = quoteContent(source, block).trim();
+                StyleNode<R, StyleNode.Style> quote = DiscordMarkdownRules.styleNode(
+                        new StyleNode.ContentStyle(StyleNode.ContentStyle.Type.QUOTE, content));
+
+                List<Node<R>> children = new ArrayList<>();
+                parse(content, scan(content, false), parser, rules, debug, children);
+                for (Node<R> child : children) {
+                    quote.addChild(child);
+                }
+                nodes.add(quote);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Scans the given Discord message for block level formatting.
+     *
+     * @param source the Discord message
+     * @return the blocks for the message in order, covering the entire message
+     */
+    @NotNull
+    public static List<Block> scan(@NotNull String source) {
+        return scan(source, true);
+    }
+
+    private static List<Block> scan(String source, boolean quotes) {
+        List<Block> blocks = new ArrayList<>();
+        int length = source.length();
+        int[] lineStarts = lineStarts(source);
+        int lineCount = lineStarts.length;
+
+        int textStart = 0;
+        int position = 0;
+        boolean unclosedFence = false;
+        int line = 0;
+        while (line < lineCount) {
+            int lineStart = lineStarts[line];
+            int lineEnd = lineEnd(lineStarts, line, length);
+
+            if (quotes && position <= lineStart && isQuoteLine(source, lineStart, lineEnd)) {
+                int lastLine = line;
+                while (lastLine + 1 < lineCount
+                        && isQuoteLine(source, lineStarts[lastLine + 1], lineEnd(lineStarts, lastLine + 1, length))) {
+                    lastLine++;
+                }
+                int quoteEnd = lineEnd(lineStarts, lastLine, length);
+
+                addText(blocks, textStart, lineStart);
+                blocks.add(new Block(Block.Type.QUOTE, lineStart, quoteEnd, lineStart + QUOTE_PREFIX.length(), quoteEnd, null));
+                position = textStart = quoteEnd;
+                line = lastLine + 1;
+                continue;
+            }
+
+            int fence = unclosedFence ? -1 : indexOfFence(source, Math.max(position, lineStart), lineEnd);
+            if (fence == -1) {
+                line++;
+                continue;
+            }
+
+            int close = indexOfFence(source, fence + CODE_FENCE.length(), length);
+            if (close == -1) {
+                // No fence after this one, so none of the following fences can be closed either
+                unclosedFence = true;
+                line++;
+                continue;
+            }
+
+            Block codeBlock = codeBlock(source, fence, close);
+            if (codeBlock == null) {
+                // Empty code block, the closing fence may still open another one
+                position = close;
+                continue;
+            }
+
+            addText(blocks, textStart, fence);
+            blocks.add(codeBlock);
+            position = textStart = codeBlock.getEnd();
+            while (line + 1 < lineCount && lineStarts[line + 1] <= position) {
+                line++;
+            }
+        }
+        addText(blocks, textStart, length);
+        return blocks;
+    }
+
+    private static int[] lineStarts(String source) {
+        int count = 1;
+        for (int index = source.indexOf('\n'); index != -1; index = source.indexOf('\n', index + 1)) {
+            count++;
+        }
+
+        int[] lineStarts = new int[count];
+        int line = 1;
+        for (int index = source.indexOf('\n'); index != -1; index = source.indexOf('\n', index + 1)) {
+            lineStarts[line++] = index + 1;
+        }
+        return lineStarts;
+    }
+
+    private static int lineEnd(int[] lineStarts, int line, int length) {
+        return line + 1 < lineStarts.length ? lineStarts[line + 1] - 1 : length;
+    }
+
+    private static boolean isQuoteLine(String source, int lineStart, int lineEnd) {
+        return lineEnd - lineStart > QUOTE_PREFIX.length() && source.startsWith(QUOTE_PREFIX, lineStart);
+    }
+
+    private static int indexOfFence(String source, int from, int to) {
+        int index = source.indexOf(CODE_FENCE, from);
+        while (index != -1 && index + CODE_FENCE.length() <= to) {
+            if (index == 0 || source.charAt(index - 1) != '\\') {
+                return index;
+            }
+            index = source.indexOf(CODE_FENCE, index + 1);
+        }
+        return -1;
+    }
+
+    private static Block codeBlock(String source, int fence, int close) {
+        int contentStart = fence + CODE_FENCE.length();
+        int contentEnd = close;
+
+        String language = null;
+        int languageEnd = contentStart;
+        while (languageEnd < contentEnd && !Character.isWhitespace(source.charAt(languageEnd))) {
+            languageEnd++;
+        }
+        if (languageEnd > contentStart && languageEnd < contentEnd && source.charAt(languageEnd) == '\n') {
+            int languageContentStart = skipNewlines(source, languageEnd + 1, contentEnd);
+            if (languageContentStart < contentEnd) {
+                language = source.substring(contentStart, languageEnd);
+                contentStart = languageContentStart;
+            }
+        }
+
+        contentStart = skipNewlines(source, contentStart, contentEnd);
+        while (contentEnd > contentStart && source.charAt(contentEnd - 1) == '\n') {
+            contentEnd--;
+        }
+        if (contentStart == contentEnd) {
+            return null;
+        }
+        return new Block(Block.Type.CODE_BLOCK, fence, close + CODE_FENCE.length(), contentStart, contentEnd, language);
+    }
+
+    private static int skipNewlines(String source, int index, int end) {
+        while (index < end && source.charAt(index) == '\n') {
+            index++;
+        }
+        return index;
+    }
+
+    private static void addText(List<Block> blocks, int start, int end) {
+        if (end > start) {
+            blocks.add(new Block(Block.Type.TEXT, start, end, start, end, null));
+        }
+    }
+
+    private static String quoteContent(String source, Block block) {
+        StringBuilder builder = new StringBuilder(block.getEnd() - block.getStart());
+        int lineStart = block.getStart();
+        while (lineStart < block.getEnd()) {
+            int lineEnd = source.indexOf('\n', lineStart);
+            if (lineEnd == -1 || lineEnd > block.getEnd()) {
+                lineEnd = block.getEnd();
+            }
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+            builder.append(source, lineStart + QUOTE_PREFIX.length(), lineEnd);
+            lineStart = lineEnd + 1;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A block level region of a Discord message.
+     */
+    public static final class Block {
+
+        private final Type type;
+        private final int start;
+        private final int end;
+        private final int contentStart;
+        private final int contentEnd;
+        private final String language;
+
+        private Block(Type type, int start, int end, int contentStart, int contentEnd, String language) {
+            this.type = type;
+            this.start = start;
+            this.end = end;
+            this.contentStart = contentStart;
+            this.contentEnd = contentEnd;
+            this.language = language;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * The start index of this block in the message, inclusive.
+         * @return the start index
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * The end index of this block in the message, exclusive.
+         * @return the end index
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        /**
+         * The start index of the content of this block in the message, inclusive.
+         * Excludes the fence and language for code blocks and the first line's prefix for quotes.
+         * @return the content start index
+         */
+        public int getContentStart() {
+            return contentStart;
+        }
+
+        /**
+         * The end index of the content of this block in the message, exclusive.
+         * @return the content end index
+         */
+        public int getContentEnd() {
+            return contentEnd;
+        }
+
+        /**
+         * The language of this code block.
+         * @return the language or {@code null} if this is not a code block or it doesn't have a language
+         */
+        @Nullable
+        public String getLanguage() {
+            return language;
+        }
+
+        @Override
+        public String toString() {
+            return "Block{" +
+                    "type=" + type +
+                    ", start=" + start +
+                    ", end=" + end +
+                    ", language=" + language +
+                    '}';
+        }
+
+        public enum Type {
+            TEXT,
+            CODE_BLOCK,
+            QUOTE
+        }
+    }
+}
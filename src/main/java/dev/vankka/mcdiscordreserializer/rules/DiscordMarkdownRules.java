@@ -36,6 +36,30 @@ public final class DiscordMarkdownRules {
 
     private DiscordMarkdownRules() {}
 
+    /* Rule flags for createRules(int), in the order the rules are tried */
+    public static final int ESCAPE = 1;
+    public static final int LINK = 1 << 1;
+    public static final int NEWLINE = 1 << 2;
+    public static final int BOLD = 1 << 3;
+    public static final int UNDERLINE = 1 << 4;
+    public static final int ITALICS = 1 << 5;
+    public static final int STRIKETHROUGH = 1 << 6;
+    public static final int QUOTE = 1 << 7;
+    public static final int SPOILER = 1 << 8;
+    public static final int CODE_BLOCK = 1 << 9;
+    public static final int CODE_STRING = 1 << 10;
+    public static final int EMOTE_MENTION = 1 << 11;
+    public static final int CHANNEL_MENTION = 1 << 12;
+    public static final int USER_MENTION = 1 << 13;
+    public static final int ROLE_MENTION = 1 << 14;
+    public static final int TEXT = 1 << 15;
+
+    /**
+     * All the rule flags, use for example {@code ALL_RULES & ~SPOILER} for all rules except spoilers.
+     * @see #createRules(int)
+     */
+    public static final int ALL_RULES = (1 << 16) - 1;
+
     private static final Pattern PATTERN_EMOTE_MENTION = Pattern.compile("^<a?:(\\w+):(\\d+)>");
     private static final Pattern PATTERN_CHANNEL_MENTION = Pattern.compile("^<#(\\d+)>");
     private static final Pattern PATTERN_USER_MENTION = Pattern.compile("^<@!?(\\d+)>");
@@ -67,8 +91,15 @@ public final class DiscordMarkdownRules {
     private static final Pattern PATTERN_TEXT = Pattern.compile("^[\\s\\S]+?(?=[^0-9A-Za-z\\s\\u00c0-\\uffff>]|\\n| {2,}\\n|\\w+:\\S|$)");
     private static final Pattern PATTERN_LINK = Pattern.compile("^(https?://[^ ]+\\.[^ ]+)");
 
-    private static <R> StyleNode<R, StyleNode.Style> styleNode(StyleNode.Style style) {
-        return new StyleNode<>(new ArrayList<>(Collections.singletonList(style)));
+    static <R> StyleNode<R, StyleNode.Style> styleNode(StyleNode.Style style) {
+        return new StyleNode<>(Collections.singletonList(style));
+    }
+
+    static <R> Node<R> textNode(CharSequence content) {
+        if (content instanceof TextSlice) {
+            return new TextSliceNode<>((TextSlice) content);
+        }
+        return new TextNode<>(content.toString());
     }
 
     /**
@@ -160,7 +191,7 @@ public final class DiscordMarkdownRules {
                 }
 
                 StyleNode.ItalicStyle style = new StyleNode.ItalicStyle(asterisk);
-                return ParseSpec.createNonterminal(new StyleNode<>(new ArrayList<>(Collections.singletonList(style))), state, startIndex, endIndex);
+                return ParseSpec.createNonterminal(new StyleNode<>(Collections.singletonList(style)), state, startIndex, endIndex);
             }
         };
     }
@@ -178,12 +209,17 @@ public final class DiscordMarkdownRules {
      * <a href="https://support.discord.com/hc/en-us/articles/360022320632-Spoiler-Tags-">Discord blog</a>
      */
     public static <R, S> Rule<R, Node<R>, S> createSpoilerRule() {
-        return new Rule<R, Node<R>, S>(PATTERN_SPOILER) {
+        return new SliceRule<R, S>(PATTERN_SPOILER) {
             @Override
             public ParseSpec<R, Node<R>, S> parse(Matcher matcher, Parser<R, Node<R>, S> parser, S state) {
-                String content = matcher.group(1);
+                CharSequence content = group(matcher, 1);
 
-                return ParseSpec.createTerminal(styleNode(new StyleNode.ContentStyle(StyleNode.ContentStyle.Type.SPOILER, content)), state);
+                return ParseSpec.createNonterminal(
+                        styleNode(new StyleNode.ContentStyle(StyleNode.ContentStyle.Type.SPOILER, content)),
+                        state,
+                        matcher.start(1),
+                        matcher.end(1)
+                );
             }
         };
     }
@@ -193,17 +229,17 @@ public final class DiscordMarkdownRules {
      * <a href="https://support.discord.com/hc/en-us/articles/210298617-Markdown-Text-101-Chat-Formatting-Bold-Italic-Underline-">Discord blog</a>
      */
     public static <R, S> Rule<R, Node<R>, S> createCodeStringRule() {
-        return new Rule<R, Node<R>, S>(PATTERN_CODE_STRING) {
+        return new SliceRule<R, S>(PATTERN_CODE_STRING) {
             @Override
             public ParseSpec<R, Node<R>, S> parse(Matcher matcher, Parser<R, Node<R>, S> parser, S state) {
-                String content = matcher.group(1);
+                CharSequence content = group(matcher, 1);
                 if (content == null) {
-                    content = matcher.group(2);
+                    content = group(matcher, 2);
                 }
                 return ParseSpec.createTerminal(
                         StyleNode.createWithText(
                                 content,
-                                new ArrayList<>(Collections.singletonList(StyleNode.Styles.CODE_STRING))
+                                Collections.singletonList(StyleNode.Styles.CODE_STRING)
                         ),
                         state
                 );
@@ -261,14 +297,14 @@ public final class DiscordMarkdownRules {
      * <a href="https://support.discord.com/hc/en-us/articles/210298617-Markdown-Text-101-Chat-Formatting-Bold-Italic-Underline-">Discord blog</a>
      */
     public static <R, S> Rule<R, Node<R>, S> createCodeBlockRule() {
-        return new Rule<R, Node<R>, S>(PATTERN_CODE_BLOCK) {
+        return new SliceRule<R, S>(PATTERN_CODE_BLOCK) {
             @Override
             public ParseSpec<R, Node<R>, S> parse(Matcher matcher, Parser<R, Node<R>, S> parser, S state) {
                 String language = matcher.group(1);
                 return ParseSpec.createTerminal(
                         StyleNode.createWithText(
-                                matcher.group(2),
-                                new ArrayList<>(Collections.singletonList(new StyleNode.CodeBlockStyle(language)))
+                                group(matcher, 2),
+                                Collections.singletonList(new StyleNode.CodeBlockStyle(language))
                         ),
                         state
                 );
@@ -281,11 +317,11 @@ public final class DiscordMarkdownRules {
      * @see #createQuoteRule()
      */
     public static <R, S> Rule<R, Node<R>, S> createSpecialTextRule() {
-        return new Rule<R, Node<R>, S>(PATTERN_TEXT) {
+        return new SliceRule<R, S>(PATTERN_TEXT) {
 
             @Override
             public ParseSpec<R, Node<R>, S> parse(Matcher matcher, Parser<R, Node<R>, S> parser, S state) {
-                return ParseSpec.createTerminal(new TextNode<>(matcher.group()), state);
+                return ParseSpec.createTerminal(textNode(matcher, 0), state);
             }
         };
     }
@@ -295,10 +331,10 @@ public final class DiscordMarkdownRules {
      * @see dev.vankka.simpleast.core.simple.SimpleMarkdownRules#createLinkRule()
      */
     public static <R, S> Rule<R, Node<R>, S> createLinkRule() {
-        return new Rule<R, Node<R>, S>(PATTERN_LINK) {
+        return new SliceRule<R, S>(PATTERN_LINK) {
             @Override
             public ParseSpec<R, Node<R>, S> parse(Matcher matcher, Parser<R, Node<R>, S> parser, S state) {
-                String link = matcher.group(1);
+                CharSequence link = group(matcher, 1);
 
                 return ParseSpec.createTerminal(
                         styleNode(new StyleNode.ContentStyle(StyleNode.ContentStyle.Type.LINK, link)),
@@ -382,14 +418,63 @@ public final class DiscordMarkdownRules {
      * @return The rules for parsing Discord messages
      */
     public static <R> List<Rule<R, Node<R>, Object>> createAllRulesForDiscord(boolean includeText) {
-        List<Rule<R, Node<R>, Object>> rules = new ArrayList<>();
-        rules.addAll(createSimpleMarkdownRules());
-        rules.addAll(createDiscordMarkdownRules());
-        if (includeText) {
-            rules.add(createSpecialTextRule());
+        return createRules(includeText ? ALL_RULES : ALL_RULES & ~TEXT);
+    }
+
+    /**
+     * Creates the rules selected by the given flags, in the same order as {@link #createAllRulesForDiscord(boolean)}.
+     *
+     * @param rules the rule flags, for example {@code ALL_RULES & ~SPOILER}
+     * @return The rules for parsing Discord messages
+     * @see #ALL_RULES
+     */
+    public static <R> List<Rule<R, Node<R>, Object>> createRules(int rules) {
+        List<Rule<R, Node<R>, Object>> created = new ArrayList<>(Integer.bitCount(rules & ALL_RULES));
+        for (int flag = 1; flag <= TEXT; flag <<= 1) {
+            if ((rules & flag) != 0) {
+                created.add(createRule(flag));
+            }
         }
+        return created;
+    }
 
-        return rules;
+    private static <R> Rule<R, Node<R>, Object> createRule(int flag) {
+        switch (flag) {
+            case ESCAPE:
+                return SimpleMarkdownRules.createEscapeRule();
+            case LINK:
+                return createLinkRule();
+            case NEWLINE:
+                return SimpleMarkdownRules.createNewlineRule();
+            case BOLD:
+                return createBoldRule();
+            case UNDERLINE:
+                return createUnderlineRule();
+            case ITALICS:
+                return createItalicsRule();
+            case STRIKETHROUGH:
+                return createStrikethruRule();
+            case QUOTE:
+                return createQuoteRule();
+            case SPOILER:
+                return createSpoilerRule();
+            case CODE_BLOCK:
+                return createCodeBlockRule();
+            case CODE_STRING:
+                return createCodeStringRule();
+            case EMOTE_MENTION:
+                return createEmoteMentionRule();
+            case CHANNEL_MENTION:
+                return createChannelMentionRule();
+            case USER_MENTION:
+                return createUserMentionRule();
+            case ROLE_MENTION:
+                return createRoleMentionRule();
+            case TEXT:
+                return createSpecialTextRule();
+            default:
+                throw new IllegalArgumentException("Unknown rule flag " + flag);
+        }
     }
 
     /**
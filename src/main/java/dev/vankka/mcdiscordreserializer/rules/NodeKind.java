@@ -0,0 +1,73 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.rules;
+
+import dev.vankka.simpleast.core.node.Node;
+import dev.vankka.simpleast.core.node.TextNode;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * The kind of a {@link Node}, used to find the renderers for a node without checking the types of its styles.
+ *
+ * @see StyleNode.Style#getKind()
+ * @see dev.vankka.mcdiscordreserializer.renderer.NodeRenderer#getNodeKinds()
+ */
+public enum NodeKind {
+    TEXT,
+    BOLD,
+    UNDERLINE,
+    STRIKETHROUGH,
+    ITALICS,
+    CODE_STRING,
+    CODE_BLOCK,
+    USER_MENTION,
+    ROLE_MENTION,
+    CHANNEL_MENTION,
+    EMOJI,
+    LINK,
+    QUOTE,
+    SPOILER,
+    /**
+     * Any other node, including {@link StyleNode}s with more or less than one style.
+     */
+    OTHER;
+
+    /**
+     * Gets the kind of the given node.
+     *
+     * @param node the node
+     * @return the kind of the node
+     */
+    @NotNull
+    public static NodeKind of(@NotNull Node<?> node) {
+        if (node instanceof StyleNode) {
+            List<?> styles = ((StyleNode<?, ?>) node).getStyles();
+            if (styles.size() == 1) {
+                Object style = styles.get(0);
+                if (style instanceof StyleNode.Style) {
+                    return ((StyleNode.Style) style).getKind();
+                }
+            }
+            return OTHER;
+        }
+        return node instanceof TextNode ? TEXT : OTHER;
+    }
+}
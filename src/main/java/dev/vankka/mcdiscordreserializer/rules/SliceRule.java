@@ -0,0 +1,70 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.rules;
+
+import dev.vankka.simpleast.core.node.Node;
+import dev.vankka.simpleast.core.parser.Rule;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link Rule} that keeps track of the source it matched against, to take groups as {@link TextSlice}s instead of copies.
+ * Like the {@link Matcher} held by every rule this is only valid during the parse that called {@link #match(CharSequence, String, Object)}.
+ */
+abstract class SliceRule<R, S> extends Rule<R, Node<R>, S> {
+
+    private CharSequence inspectionSource;
+
+    SliceRule(Pattern pattern) {
+        super(pattern);
+    }
+
+    @Override
+    public Matcher match(CharSequence inspectionSource, String lastCapture, S state) {
+        this.inspectionSource = inspectionSource;
+        return super.match(inspectionSource, lastCapture, state);
+    }
+
+    /**
+     * Gets a group from the last match without copying it, if the parser was given a {@link TextSlice}.
+     *
+     * @param matcher the matcher given to parse
+     * @param group the group index
+     * @return the group's content or {@code null} if the group didn't match
+     */
+    CharSequence group(Matcher matcher, int group) {
+        int start = matcher.start(group);
+        if (start == -1) {
+            return null;
+        }
+        return inspectionSource.subSequence(start, matcher.end(group));
+    }
+
+    /**
+     * Creates a text node for a group from the last match.
+     *
+     * @param matcher the matcher given to parse
+     * @param group the group index
+     * @return a {@link TextSliceNode} if the parser was given a {@link TextSlice}, otherwise a {@link dev.vankka.simpleast.core.node.TextNode}
+     */
+    Node<R> textNode(Matcher matcher, int group) {
+        return DiscordMarkdownRules.textNode(group(matcher, group));
+    }
+}
@@ -22,6 +22,7 @@ import dev.vankka.simpleast.core.node.Node;
 import dev.vankka.simpleast.core.node.TextNode;
 
 import java.util.List;
+import java.util.Objects;
 
 public class StyleNode<RC, T> extends Node<RC> {
 
@@ -31,6 +32,10 @@ public class StyleNode<RC, T> extends Node<RC> {
         this.styles = styles;
     }
 
+    /**
+     * The styles of this node, nodes created by {@link DiscordMarkdownRules} and {@link DiscordBlockParser} have unmodifiable styles.
+     * @return the styles
+     */
     public List<T> getStyles() {
         return styles;
     }
@@ -48,8 +53,25 @@ public class StyleNode<RC, T> extends Node<RC> {
         return styleNode;
     }
 
+    /**
+     * Creates a style node with a single text child, which is a {@link TextSliceNode} if the content is a {@link TextSlice}.
+     */
+    public static <RC> StyleNode<RC, Style> createWithText(CharSequence content, List<Style> styles) {
+        StyleNode<RC, Style> styleNode = new StyleNode<>(styles);
+        styleNode.addChild(DiscordMarkdownRules.textNode(content));
+        return styleNode;
+    }
+
     public interface Style {
         String name();
+
+        /**
+         * The kind of node a {@link StyleNode} with only this style is.
+         * @return the kind of node
+         */
+        default NodeKind getKind() {
+            return NodeKind.OTHER;
+        }
     }
 
     public static class CodeBlockStyle implements Style {
@@ -68,6 +90,23 @@ public class StyleNode<RC, T> extends Node<RC> {
         public String name() {
             return "CODE_BLOCK";
         }
+
+        @Override
+        public NodeKind getKind() {
+            return NodeKind.CODE_BLOCK;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return Objects.equals(language, ((CodeBlockStyle) o).language);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(language);
+        }
     }
 
     public static class MentionStyle implements Style {
@@ -93,6 +132,33 @@ public class StyleNode<RC, T> extends Node<RC> {
             return type.name() + "_NAME";
         }
 
+        @Override
+        public NodeKind getKind() {
+            switch (type) {
+                case CHANNEL:
+                    return NodeKind.CHANNEL_MENTION;
+                case USER:
+                    return NodeKind.USER_MENTION;
+                case ROLE:
+                    return NodeKind.ROLE_MENTION;
+                default:
+                    return NodeKind.OTHER;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MentionStyle that = (MentionStyle) o;
+            return type == that.type && Objects.equals(id, that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id);
+        }
+
         public enum Type {
             CHANNEL,
             USER,
@@ -122,6 +188,24 @@ public class StyleNode<RC, T> extends Node<RC> {
         public String name() {
             return "EMOJI_MENTION";
         }
+
+        @Override
+        public NodeKind getKind() {
+            return NodeKind.EMOJI;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            EmojiStyle that = (EmojiStyle) o;
+            return Objects.equals(id, that.id) && Objects.equals(name, that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
     }
 
     public static class ItalicStyle implements Style {
@@ -140,14 +224,38 @@ public class StyleNode<RC, T> extends Node<RC> {
         public String name() {
             return "ITALICS";
         }
+
+        @Override
+        public NodeKind getKind() {
+            return NodeKind.ITALICS;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return italics == ((ItalicStyle) o).italics;
+        }
+
+        @Override
+        public int hashCode() {
+            return Boolean.hashCode(italics);
+        }
     }
 
     public static class ContentStyle implements Style {
 
         private final Type type;
-        private final String content;
+        private final CharSequence content;
 
         public ContentStyle(Type type, String content) {
+            this(type, (CharSequence) content);
+        }
+
+        /**
+         * Creates a content style, the content is only turned into a {@link String} when {@link #getContent()} is called.
+         */
+        public ContentStyle(Type type, CharSequence content) {
             this.type = type;
             this.content = content;
         }
@@ -157,6 +265,14 @@ public class StyleNode<RC, T> extends Node<RC> {
         }
 
         public String getContent() {
+            return content.toString();
+        }
+
+        /**
+         * Gets the content without copying it, this is a {@link TextSlice} of the message when parsed from one.
+         * @return the content
+         */
+        public CharSequence getContentSequence() {
             return content;
         }
 
@@ -165,6 +281,49 @@ public class StyleNode<RC, T> extends Node<RC> {
             return type.name();
         }
 
+        @Override
+        public NodeKind getKind() {
+            switch (type) {
+                case QUOTE:
+                    return NodeKind.QUOTE;
+                case SPOILER:
+                    return NodeKind.SPOILER;
+                case LINK:
+                    return NodeKind.LINK;
+                default:
+                    return NodeKind.OTHER;
+            }
+        }
+
+        /**
+         * Content styles are equal if they have the same type and content, whether the content is a {@link String} or a {@link TextSlice}.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ContentStyle that = (ContentStyle) o;
+            if (type != that.type || content.length() != that.content.length()) {
+                return false;
+            }
+            for (int index = 0; index < content.length(); index++) {
+                if (content.charAt(index) != that.content.charAt(index)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            // The same as String#hashCode for the content
+            int hash = 0;
+            for (int index = 0; index < content.length(); index++) {
+                hash = 31 * hash + content.charAt(index);
+            }
+            return 31 * type.hashCode() + hash;
+        }
+
         public enum Type {
             QUOTE,
             SPOILER,
@@ -174,13 +333,24 @@ public class StyleNode<RC, T> extends Node<RC> {
 
     public enum Styles implements Style {
         /* Basic Markdown: */
-        BOLD,
-        UNDERLINE,
-        STRIKETHROUGH,
+        BOLD(NodeKind.BOLD),
+        UNDERLINE(NodeKind.UNDERLINE),
+        STRIKETHROUGH(NodeKind.STRIKETHROUGH),
 
         /* Discord special */
-        CODE_STRING,
-        MASKED_LINK,
-        LIST
+        CODE_STRING(NodeKind.CODE_STRING),
+        MASKED_LINK(NodeKind.OTHER),
+        LIST(NodeKind.OTHER);
+
+        private final NodeKind kind;
+
+        Styles(NodeKind kind) {
+            this.kind = kind;
+        }
+
+        @Override
+        public NodeKind getKind() {
+            return kind;
+        }
     }
 }
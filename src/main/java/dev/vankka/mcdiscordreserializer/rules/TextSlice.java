@@ -0,0 +1,114 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.rules;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link CharSequence} view of a range of a message, without copying the characters.
+ * {@link #subSequence(int, int)} returns another view into the same message,
+ * the {@link String} for the range is only created when {@link #toString()} is called.
+ */
+public final class TextSlice implements CharSequence {
+
+    private final String source;
+    private final int start;
+    private final int end;
+    private String string;
+
+    /**
+     * Creates a slice covering the entire source.
+     * @param source the message
+     */
+    public TextSlice(@NotNull String source) {
+        this(source, 0, source.length());
+    }
+
+    /**
+     * Creates a slice of the given range of the source.
+     *
+     * @param source the message
+     * @param start the start index, inclusive
+     * @param end the end index, exclusive
+     * @throws IndexOutOfBoundsException if the range is not inside of the source
+     */
+    public TextSlice(@NotNull String source, int start, int end) {
+        if (start < 0 || end > source.length() || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + source.length());
+        }
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * The message this is a slice of.
+     * @return the entire message
+     */
+    @NotNull
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * The start index of this slice in the {@link #getSource() source}, inclusive.
+     * @return the start index
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * The end index of this slice in the {@link #getSource() source}, exclusive.
+     * @return the end index
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+        }
+        return source.charAt(start + index);
+    }
+
+    @Override
+    public @NotNull TextSlice subSequence(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+        }
+        return new TextSlice(source, this.start + start, this.start + end);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        String string = this.string;
+        if (string == null) {
+            string = this.string = start == 0 && end == source.length() ? source : source.substring(start, end);
+        }
+        return string;
+    }
+}
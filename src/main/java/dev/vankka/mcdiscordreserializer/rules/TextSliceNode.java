@@ -0,0 +1,55 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.rules;
+
+import dev.vankka.simpleast.core.node.TextNode;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link TextNode} that references its content as a {@link TextSlice} of the original message,
+ * the content is only copied into a {@link String} when {@link #getContent()} is called.
+ */
+public class TextSliceNode<R> extends TextNode<R> {
+
+    private final TextSlice slice;
+
+    public TextSliceNode(@NotNull TextSlice slice) {
+        super("");
+        this.slice = slice;
+    }
+
+    /**
+     * The slice of the message this node's content is.
+     * @return the content without copying it
+     */
+    @NotNull
+    public TextSlice getSlice() {
+        return slice;
+    }
+
+    @Override
+    public String getContent() {
+        return slice.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "TextSliceNode{content=" + slice + "}";
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package dev.vankka.mcdiscordreserializer.rules;
+
+/**
+ * The hook for checking many characters at a time in {@link CharScanner}. This version doesn't vectorize anything,
+ * the multi-release jar replaces it on Java 17+ with a version that uses the {@code jdk.incubator.vector} API.
+ */
+final class VectorSupport {
+
+    private VectorSupport() {}
+
+    /**
+     * The characters in the form the vectorized scan uses.
+     *
+     * @return the characters or {@code null} if vectorized scans are not available
+     */
+    static short[] characters(String characters) {
+        return null;
+    }
+
+    /**
+     * Finds the first of the characters in the string, only used if {@link #characters(String)} returned the characters.
+     */
+    static int indexOf(short[] characters, CharScanner scanner, String text, int fromIndex) {
+        for (int index = fromIndex; index < text.length(); index++) {
+            if (scanner.matches(text.charAt(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first of the characters in the array between the indexes, only used if {@link #characters(String)}
+     * returned the characters.
+     */
+    static int indexOf(short[] characters, CharScanner scanner, char[] text, int fromIndex, int toIndex) {
+        for (int index = fromIndex; index < toIndex; index++) {
+            if (scanner.matches(text[index])) {
+                return index;
+            }
+        }
+        return -1;
+    }
+}
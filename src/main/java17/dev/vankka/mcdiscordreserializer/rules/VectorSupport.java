@@ -0,0 +1,101 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package dev.vankka.mcdiscordreserializer.rules;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Java 17+ version of the hook for {@link CharScanner} from the multi-release jar, checks many characters at a time
+ * with the {@code jdk.incubator.vector} API when the JVM was started with {@code --add-modules jdk.incubator.vector}.
+ */
+final class VectorSupport {
+
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    private static final int CHUNK_SIZE = 512;
+    // Strings are copied into a chunk at a time since the vector API only reads arrays
+    private static final ThreadLocal<char[]> CHUNKS = ThreadLocal.withInitial(() -> new char[CHUNK_SIZE]);
+
+    private VectorSupport() {}
+
+    static short[] characters(String characters) {
+        if (!AVAILABLE) {
+            return null;
+        }
+
+        short[] vectorCharacters = new short[characters.length()];
+        for (int index = 0; index < characters.length(); index++) {
+            vectorCharacters[index] = (short) characters.charAt(index);
+        }
+        return vectorCharacters;
+    }
+
+    static int indexOf(short[] characters, CharScanner scanner, String text, int fromIndex) {
+        char[] chunk = CHUNKS.get();
+        int length = text.length();
+        int chunkStart = fromIndex;
+        while (chunkStart < length) {
+            int chunkLength = Math.min(chunk.length, length - chunkStart);
+            text.getChars(chunkStart, chunkStart + chunkLength, chunk, 0);
+
+            int index = Vectorized.indexOf(characters, scanner, chunk, 0, chunkLength);
+            if (index != -1) {
+                return chunkStart + index;
+            }
+            chunkStart += chunkLength;
+        }
+        return -1;
+    }
+
+    static int indexOf(short[] characters, CharScanner scanner, char[] text, int fromIndex, int toIndex) {
+        return Vectorized.indexOf(characters, scanner, text, fromIndex, toIndex);
+    }
+
+    /**
+     * The part that uses the vector API, only loaded when the {@code jdk.incubator.vector} module is present.
+     * The preferred species checks 16 characters at a time with AVX2 and 32 with AVX-512.
+     */
+    private static final class Vectorized {
+
+        private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+        static int indexOf(short[] characters, CharScanner scanner, char[] text, int fromIndex, int toIndex) {
+            int index = fromIndex;
+            int bound = fromIndex + SPECIES.loopBound(toIndex - fromIndex);
+            for (; index < bound; index += SPECIES.length()) {
+                ShortVector vector = ShortVector.fromCharArray(SPECIES, text, index);
+                VectorMask<Short> mask = vector.eq(characters[0]);
+                for (int character = 1; character < characters.length; character++) {
+                    mask = mask.or(vector.eq(characters[character]));
+                }
+                if (mask.anyTrue()) {
+                    return index + mask.firstTrue();
+                }
+            }
+            for (; index < toIndex; index++) {
+                if (scanner.matches(text[index])) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+    }
+}
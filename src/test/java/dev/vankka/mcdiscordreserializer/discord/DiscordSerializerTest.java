@@ -18,13 +18,22 @@
 
 package dev.vankka.mcdiscordreserializer.discord;
 
+import dev.vankka.mcdiscordreserializer.rules.CharScanner;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.KeybindComponent;
+import net.kyori.adventure.text.TranslatableComponent;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class DiscordSerializerTest {
 
     private static final String SEPARATOR = "\u200B";
@@ -40,6 +49,25 @@ public class DiscordSerializerTest {
         Assertions.assertEquals("__underline__", serializer.serialize(Component.text("underline").decorate(TextDecoration.UNDERLINED)));
     }
 
+    @Test
+    public void escapeTest() {
+        DiscordSerializerOptions escaping = DiscordSerializerOptions.defaults().withEscapeMarkdown(true);
+        Assertions.assertEquals("no markdown here", serializer.serialize(Component.text("no markdown here"), escaping));
+        Assertions.assertEquals(
+                "\\*a\\~b\\_c\\`d\\|e\\:f\\[g\\*\\*",
+                serializer.serialize(Component.text("*a~b_c`d|e:f[g**"), escaping)
+        );
+
+        StringBuilder text = new StringBuilder();
+        StringBuilder escaped = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            text.append("a long message with *some* words_here ");
+            escaped.append("a long message with \\*some\\* words\\_here ");
+        }
+        Assertions.assertEquals(escaped.toString(), CharScanner.MARKDOWN_ESCAPES.escape(text.toString(), '\\'));
+        Assertions.assertEquals(escaped.toString(), serializer.serialize(Component.text(text.toString()), escaping));
+    }
+
     @Test
     public void multiFormattingTest() {
         Assertions.assertEquals(
@@ -106,4 +134,186 @@ public class DiscordSerializerTest {
                 )
         );
     }
+
+    @Test
+    public void textWalkerTest() {
+        Component component = Component.text()
+                .append(Component.text("[Admin]").decorate(TextDecoration.BOLD))
+                .append(Component.text(" ", NamedTextColor.DARK_GRAY))
+                .append(Component.text("Vankka"))
+                .append(Component.text()
+                                .content("Hello ")
+                                .decorate(TextDecoration.ITALIC)
+                                .append(Component.text("world").decorate(TextDecoration.UNDERLINED))
+                                .append(Component.text("!").decoration(TextDecoration.ITALIC, false))
+                                .build())
+                .build();
+
+        DiscordSerializerOptions flattenerOptions = DiscordSerializerOptions.defaults()
+                .withFlattener(DiscordSerializerOptions.DEFAULT_FLATTENER.toBuilder().build());
+        Assertions.assertEquals(
+                serializer.serialize(component, flattenerOptions),
+                serializer.serialize(component)
+        );
+    }
+
+    @Test
+    public void plainTextTest() {
+        DiscordSerializerOptions flattenerOptions = DiscordSerializerOptions.defaults()
+                .withFlattener(DiscordSerializerOptions.DEFAULT_FLATTENER.toBuilder().build());
+        for (Component component : new Component[] {
+                Component.text(""),
+                Component.text("*not* _markdown_ https://example.com", NamedTextColor.RED),
+                Component.text("no bold").decoration(TextDecoration.BOLD, false)
+        }) {
+            Assertions.assertEquals(serializer.serialize(component, flattenerOptions), serializer.serialize(component));
+        }
+    }
+
+    @Test
+    public void hoverTest() {
+        Component hover = Component.text("Player card");
+        Component component = Component.text()
+                .hoverEvent(HoverEvent.showText(hover))
+                .append(Component.text("Vankka").clickEvent(ClickEvent.openUrl("https://example.com")))
+                .append(Component.text(" and "))
+                .append(Component.text("Discord").hoverEvent(HoverEvent.showText(hover)))
+                .build();
+
+        String expected = "[Vankka](<https://example.com> \"Player card\")" + SEPARATOR + " and Discord";
+        Assertions.assertEquals(expected, serializerWithLinks.serialize(component));
+
+        DiscordSerializerOptions cachedOptions = serializerWithLinks.getDefaultOptions().withHoverCacheSize(16);
+        Assertions.assertEquals(expected, serializer.serialize(component, cachedOptions));
+        Assertions.assertEquals(expected, serializer.serialize(component, cachedOptions));
+
+        // Hovers are cached by identity, an equal hover is flattened again
+        AtomicInteger flattened = new AtomicInteger();
+        DiscordSerializerOptions countingOptions = cachedOptions.withFlattener(
+                cachedOptions.getFlattener().toBuilder()
+                        .mapper(TranslatableComponent.class, translatable -> {
+                            flattened.incrementAndGet();
+                            return "Player card";
+                        })
+                        .build()
+        ).withHoverCacheSize(16);
+        Component translatableHover = Component.translatable("hover.card");
+        Component link = Component.text("Vankka")
+                .clickEvent(ClickEvent.openUrl("https://example.com"))
+                .hoverEvent(HoverEvent.showText(translatableHover));
+        serializer.serialize(link, countingOptions);
+        serializer.serialize(link, countingOptions);
+        Assertions.assertEquals(1, flattened.get());
+        serializer.serialize(link.hoverEvent(HoverEvent.showText(Component.translatable("hover.card"))), countingOptions);
+        Assertions.assertEquals(2, flattened.get());
+    }
+
+    @Test
+    public void translationCacheTest() {
+        AtomicInteger lookups = new AtomicInteger();
+        TranslationCache cache = new TranslationCache((key, locale) -> {
+            lookups.incrementAndGet();
+            return key.equals("death.attack.mob") ? new MessageFormat("{0} was slain by {1}", locale) : null;
+        }, 16);
+        DiscordSerializerOptions options = DiscordSerializerOptions.defaults();
+        options = options.withFlattener(
+                options.getFlattener().toBuilder()
+                        .mapper(TranslatableComponent.class, cache.provider(Locale.ROOT))
+                        .build()
+        );
+
+        Component component = Component.translatable(
+                "death.attack.mob",
+                Component.text("Vankka"),
+                Component.translatable("entity.minecraft.zombie")
+        );
+        Assertions.assertEquals("Vankka was slain by entity.minecraft.zombie", serializer.serialize(component, options));
+        Assertions.assertEquals("Vankka was slain by entity.minecraft.zombie", serializer.serialize(component, options));
+        Assertions.assertEquals(2, lookups.get());
+
+        // Arguments are flattened with the mappers of the given flattener
+        DiscordSerializerOptions keybindOptions = options.withFlattener(
+                DiscordSerializerOptions.defaults().getFlattener().toBuilder()
+                        .mapper(KeybindComponent.class, keybind -> "Space")
+                        .build()
+        );
+        keybindOptions = keybindOptions.withFlattener(
+                keybindOptions.getFlattener().toBuilder()
+                        .mapper(TranslatableComponent.class, cache.provider(Locale.ROOT, keybindOptions.getFlattener()))
+                        .build()
+        );
+        Assertions.assertEquals(
+                "Vankka was slain by Space",
+                serializer.serialize(Component.translatable("death.attack.mob", Component.text("Vankka"), Component.keybind("key.jump")), keybindOptions)
+        );
+    }
+
+    @Test
+    public void templateTest() {
+        DiscordTemplate template = DiscordTemplate.compile(
+                Component.text()
+                        .append(Component.text("[Admin] ", NamedTextColor.RED, TextDecoration.BOLD))
+                        .append(Component.text("%name%", NamedTextColor.GOLD))
+                        .append(Component.text(": "))
+                        .append(Component.text("%message%"))
+                        .build(),
+                DiscordSerializerOptions.defaults(),
+                "%name%", "%message%"
+        );
+
+        Component message = Component.text("hello *world* ").append(Component.text("bold").decorate(TextDecoration.BOLD));
+        Assertions.assertEquals(
+                serializer.serialize(
+                        Component.text()
+                                .append(Component.text("[Admin] ", NamedTextColor.RED, TextDecoration.BOLD))
+                                .append(Component.text("Vankka", NamedTextColor.GOLD))
+                                .append(Component.text(": "))
+                                .append(message)
+                                .build()
+                ),
+                template.serialize(Component.text("Vankka"), message)
+        );
+    }
+
+    @Test
+    public void sessionTest() {
+        DiscordSerializerSession session = serializer.createSession();
+        Component first = Component.text()
+                .content("Top players")
+                .decorate(TextDecoration.BOLD)
+                .append(Component.text("\n1. Vankka").decoration(TextDecoration.BOLD, false))
+                .append(Component.text("\n2. Notch *100*"))
+                .append(Component.text("\n3. jeb_").decorate(TextDecoration.ITALIC))
+                .build();
+        Assertions.assertEquals(serializer.serialize(first), session.serialize(first));
+
+        Component second = first.children(Arrays.asList(
+                first.children().get(0),
+                Component.text("\n2. Notch *120*"),
+                first.children().get(2)
+        ));
+        Assertions.assertEquals(serializer.serialize(second), session.serialize(second));
+
+        // Moved children and equal children that are new instances
+        Component third = first.children(Arrays.asList(
+                second.children().get(2),
+                Component.text("\n2. Notch *120*"),
+                second.children().get(0)
+        ));
+        Assertions.assertEquals(serializer.serialize(third), session.serialize(third));
+    }
+
+    @Test
+    public void ansiTest() {
+        Component component = Component.text()
+                .append(Component.text("Vankka", NamedTextColor.GOLD, TextDecoration.BOLD, TextDecoration.ITALIC))
+                .append(Component.text(": "))
+                .append(Component.text("hi ", NamedTextColor.GOLD))
+                .append(Component.text("```", NamedTextColor.GOLD))
+                .build();
+        Assertions.assertEquals(
+                "```ansi\n\u001B[1;33mVankka\u001B[0m: \u001B[33mhi ``\u200B`\n```",
+                serializer.serializeAnsi(component)
+        );
+    }
 }
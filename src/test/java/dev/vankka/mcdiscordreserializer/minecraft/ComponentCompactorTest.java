@@ -0,0 +1,138 @@
+/*
+ * MCDiscordReserializer: A library for transcoding between Minecraft and Discord.
+ * Copyright (C) 2021-2025 Vankka
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.vankka.mcdiscordreserializer.minecraft;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ComponentCompactorTest {
+
+    private static final String[] CORPUS = {
+            "Hello world!",
+            "**bold** and *italics* and __underline__ and ~~strikethrough~~",
+            "***~~__everything__~~***",
+            "~~strikethrough __strikethrough underline__ **strikethrough bold**~~",
+            "> quoted **bold**\n> second line\nafter the quote",
+            "||spoiler with *italics*|| after",
+            "`code` and ``more code`` and **`bold code`**",
+            "```java\nSystem.out.println(\"Hello\");\n```",
+            "<@123456789> <#987654321> <@&111111111> <:emote:222222222>",
+            "check https://example.com **now**!!! (really) -- ok?",
+    };
+
+    private final MinecraftSerializer serializer = new MinecraftSerializer();
+
+    @Test
+    public void corpusTest() {
+        MinecraftSerializerOptions<Component> compacting = serializer.getDefaultOptions().withOutputCompactionEnabled(true);
+        for (String message : CORPUS) {
+            Assertions.assertEquals(runs(serializer.serialize(message)), runs(serializer.serialize(message, compacting)), message);
+        }
+    }
+
+    @Test
+    public void jsonTest() {
+        MinecraftSerializerOptions<Component> compacting = serializer.getDefaultOptions().withOutputCompactionEnabled(true);
+        assertJson("{\"text\":\"Hello world!\"}", serializer.serialize(CORPUS[0], compacting));
+        assertJson(
+                "{\"text\":\"\",\"extra\":["
+                        + "{\"text\":\"bold\",\"bold\":true},{\"text\":\" and \"},"
+                        + "{\"text\":\"italics\",\"italic\":true},{\"text\":\" and \"},"
+                        + "{\"text\":\"underline\",\"underlined\":true},{\"text\":\" and \"},"
+                        + "{\"text\":\"strikethrough\",\"strikethrough\":true}]}",
+                serializer.serialize(CORPUS[1], compacting)
+        );
+        assertJson(
+                "{\"text\":\"strikethrough \",\"strikethrough\":true,\"extra\":["
+                        + "{\"text\":\"strikethrough underline\",\"underlined\":true},{\"text\":\" \"},"
+                        + "{\"text\":\"strikethrough bold\",\"bold\":true}]}",
+                serializer.serialize(CORPUS[3], compacting)
+        );
+        assertJson(
+                "{\"text\":\"x\",\"bold\":true,\"extra\":[{\"text\":\"yz\"}]}",
+                ComponentCompactor.compact(Component.text("x", Style.style(TextDecoration.BOLD))
+                        .append(Component.text("y", Style.style(TextDecoration.BOLD)))
+                        .append(Component.text().append(Component.text("z", Style.style(TextDecoration.BOLD)))))
+        );
+    }
+
+    /**
+     * Compares the JSON of the component to the expected JSON, independent of the order of the properties.
+     */
+    private static void assertJson(String expected, Component component) {
+        GsonComponentSerializer gson = GsonComponentSerializer.gson();
+        Assertions.assertEquals(gson.serialize(gson.deserialize(expected)), gson.serialize(component));
+    }
+
+    @Test
+    public void compactTest() {
+        Assertions.assertEquals(
+                Component.text("ab", NamedTextColor.RED),
+                ComponentCompactor.compact(Component.empty()
+                        .append(Component.text("a", NamedTextColor.RED))
+                        .append(Component.text("b", NamedTextColor.RED)))
+        );
+        Assertions.assertEquals(
+                Component.text("x", Style.style(TextDecoration.BOLD)).append(Component.text("y")),
+                ComponentCompactor.compact(Component.text("x", Style.style(TextDecoration.BOLD))
+                        .append(Component.text("y", Style.style(TextDecoration.BOLD))))
+        );
+    }
+
+    /**
+     * The text of the component with the style it is displayed with, adjacent text with the same style is merged.
+     */
+    private static List<String> runs(Component component) {
+        List<StringBuilder> contents = new ArrayList<>();
+        List<Style> styles = new ArrayList<>();
+        runs(component, Style.empty(), contents, styles);
+
+        List<String> runs = new ArrayList<>();
+        for (int i = 0; i < contents.size(); i++) {
+            runs.add(contents.get(i) + " " + styles.get(i));
+        }
+        return runs;
+    }
+
+    private static void runs(Component component, Style inherited, List<StringBuilder> contents, List<Style> styles) {
+        Style style = inherited.merge(component.style());
+        String content = component instanceof TextComponent ? ((TextComponent) component).content() : component.toString();
+        if (!content.isEmpty()) {
+            int last = styles.size() - 1;
+            if (last >= 0 && styles.get(last).equals(style)) {
+                contents.get(last).append(content);
+            } else {
+                contents.add(new StringBuilder(content));
+                styles.add(style);
+            }
+        }
+        for (Component child : component.children()) {
+            runs(child, style, contents, styles);
+        }
+    }
+}
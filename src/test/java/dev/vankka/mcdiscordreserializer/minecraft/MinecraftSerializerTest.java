@@ -18,11 +18,35 @@
 
 package dev.vankka.mcdiscordreserializer.minecraft;
 
+import dev.vankka.mcdiscordreserializer.renderer.MinecraftNodeRenderer;
+import dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultMinecraftRenderer;
+import dev.vankka.mcdiscordreserializer.renderer.implementation.DefaultPlainTextRenderer;
+import dev.vankka.mcdiscordreserializer.rules.CompactAst;
+import dev.vankka.mcdiscordreserializer.rules.DiscordMarkdownRules;
+import dev.vankka.mcdiscordreserializer.rules.NodeKind;
+import dev.vankka.mcdiscordreserializer.rules.StyleNode;
+import dev.vankka.simpleast.core.node.Node;
+import dev.vankka.simpleast.core.parser.Parser;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
 public class MinecraftSerializerTest {
 
     private final MinecraftSerializer serializer = new MinecraftSerializer();
@@ -70,4 +94,348 @@ public class MinecraftSerializerTest {
                 serializer.serialize("~~strikethrough __strikethrough underline__ **strikethrough bold**~~")
         );
     }
+
+    @Test
+    public void codeBlockTest() {
+        Assertions.assertEquals(
+                Component.text("**not bold**\nsecond line", NamedTextColor.DARK_GRAY),
+                serializer.serialize("```java\n**not bold**\nsecond line\n```")
+        );
+    }
+
+    @Test
+    public void decorationStyleTest() {
+        Assertions.assertEquals(Component.text("bold").decorate(TextDecoration.BOLD), serializer.serialize("**bold**"));
+        Assertions.assertEquals(Component.text("italic").decorate(TextDecoration.ITALIC), serializer.serialize("*italic*"));
+        Assertions.assertEquals(Component.text("underline").decorate(TextDecoration.UNDERLINED), serializer.serialize("__underline__"));
+        Assertions.assertEquals(Component.text("strike").decorate(TextDecoration.STRIKETHROUGH), serializer.serialize("~~strike~~"));
+        Assertions.assertEquals(Component.text("code", NamedTextColor.DARK_GRAY), serializer.serialize("`code`"));
+        Assertions.assertEquals(
+                runs(Component.text("all").decorate(TextDecoration.BOLD).decorate(TextDecoration.ITALIC)
+                        .decorate(TextDecoration.UNDERLINED).decorate(TextDecoration.STRIKETHROUGH)),
+                runs(serializer.serialize("***__~~all~~__***"))
+        );
+
+        Component spoiler = Component.text("secret");
+        Assertions.assertEquals(
+                runs(spoiler.decoration(TextDecoration.OBFUSCATED, true).color(NamedTextColor.DARK_GRAY).hoverEvent(spoiler)),
+                runs(serializer.serialize("||secret||"))
+        );
+
+        // Nodes with only decorations share their styles
+        Assertions.assertSame(serializer.serialize("***first***").style(), serializer.serialize("***second***").style());
+        Assertions.assertEquals(
+                serializer.serialize("***bold italic*** `code`"),
+                serializer.serialize(serializer.parseCompact("***bold italic*** `code`"), serializer.getDefaultOptions())
+        );
+
+        DefaultMinecraftRenderer redBold = new DefaultMinecraftRenderer() {
+            @Override
+            public @NotNull Component bold(@NotNull Component component) {
+                return component.color(NamedTextColor.RED);
+            }
+        };
+        Assertions.assertEquals(
+                runs(Component.text("bold", NamedTextColor.RED)),
+                runs(serializer.serialize("**bold**", serializer.getDefaultOptions().addRenderer(redBold)))
+        );
+    }
+
+    @Test
+    public void quoteTest() {
+        Assertions.assertFalse(MinecraftSerializerOptions.defaults().isBlockParsingEnabled());
+        MinecraftSerializerOptions<Component> blocks = serializer.getDefaultOptions().withBlockParsingEnabled(true);
+
+        String multiLine = "> first line\n> second line\n> third line";
+        Component expected = replaceTextQuote(Component.text("first line\nsecond line\nthird line"));
+        Assertions.assertEquals(runs(expected), runs(serializer.serialize(multiLine)));
+        Assertions.assertEquals(runs(expected), runs(serializer.serialize(multiLine, blocks)));
+
+        String formatted = "> quoted **bold**\n> *second* line";
+        expected = replaceTextQuote(
+                Component.text()
+                        .append(Component.text("quoted "))
+                        .append(Component.text("bold").decorate(TextDecoration.BOLD))
+                        .append(Component.text("\n"))
+                        .append(Component.text("second").decorate(TextDecoration.ITALIC))
+                        .append(Component.text(" line"))
+                        .build()
+        );
+        Assertions.assertEquals(runs(expected), runs(serializer.serialize(formatted)));
+        Assertions.assertEquals(runs(expected), runs(serializer.serialize(formatted, blocks)));
+    }
+
+    /**
+     * How quotes were rendered before line prefixes were written while rendering.
+     */
+    private static Component replaceTextQuote(Component content) {
+        Component prefix = DefaultMinecraftRenderer.INSTANCE.quoteLinePrefix();
+        TextReplacementConfig newlines = TextReplacementConfig.builder()
+                .match("\n")
+                .replacement(builder -> builder.append(prefix))
+                .build();
+        return Component.empty().append(prefix).append(content.replaceText(newlines));
+    }
+
+    /**
+     * The text of the component with the style it's shown with, adjacent text with the same style is joined
+     * so that components with a different structure but the same output are equal.
+     */
+    private static List<String> runs(Component component) {
+        List<String> runs = new ArrayList<>();
+        List<Style> styles = new ArrayList<>();
+        addRuns(component, Style.empty(), runs, styles);
+        for (int index = 0; index < runs.size(); index++) {
+            runs.set(index, styles.get(index) + ": " + runs.get(index));
+        }
+        return runs;
+    }
+
+    private static void addRuns(Component component, Style parent, List<String> runs, List<Style> styles) {
+        Style style = parent.merge(component.style());
+        if (component instanceof TextComponent && !((TextComponent) component).content().isEmpty()) {
+            String content = ((TextComponent) component).content();
+            int last = runs.size() - 1;
+            if (last >= 0 && styles.get(last).equals(style)) {
+                runs.set(last, runs.get(last) + content);
+            } else {
+                runs.add(content);
+                styles.add(style);
+            }
+        }
+        for (Component child : component.children()) {
+            addRuns(child, style, runs, styles);
+        }
+    }
+
+    @Test
+    public void compactAstTest() {
+        String[] messages = {
+                "__underline **bold**__",
+                "~~strikethrough __strikethrough underline__ **strikethrough bold**~~",
+                "> quoted **bold**\n> second line\nafter",
+                "||spoiler *italics*|| `code` <@123> <:emote:456>",
+                "```java\n**not bold**\n```"
+        };
+        for (String message : messages) {
+            Assertions.assertEquals(
+                    serializer.serialize(message),
+                    serializer.serialize(serializer.parseCompact(message), serializer.getDefaultOptions())
+            );
+        }
+
+        // Equal mention styles are stored once
+        CompactAst.Cursor cursor = serializer.parseCompact("<@123> <@123>").cursor();
+        Assertions.assertTrue(cursor.firstChild());
+        int firstMention = cursor.getStyleId();
+        Assertions.assertTrue(cursor.nextSibling());
+        Assertions.assertTrue(cursor.nextSibling());
+        Assertions.assertEquals(firstMention, cursor.getStyleId());
+    }
+
+    @Test
+    public void renderWithoutSideEffectsTest() {
+        String discordMessage = "`code` and **bold** ||spoiler *italics*||\n> quoted __underline__";
+        ParsedMessage message = serializer.parse(discordMessage);
+        List<Object> nodes = snapshot(message.getNodes(), new ArrayList<>());
+
+        // The default renderer, and a subclass which doesn't use the shared decoration styles
+        MinecraftSerializerOptions<Component> subclassOptions = serializer.getDefaultOptions()
+                .addRenderer(new DefaultMinecraftRenderer() {});
+
+        Component first = serializer.serialize(message);
+        Assertions.assertEquals(first, serializer.serialize(message));
+        Assertions.assertEquals(first, serializer.serialize(message, subclassOptions));
+        Assertions.assertEquals(first, serializer.serialize(message, subclassOptions));
+        Assertions.assertEquals(first, serializer.serialize(serializer.parseCompact(discordMessage), subclassOptions));
+
+        for (Node<Object> node : message.getNodes()) {
+            DefaultMinecraftRenderer.INSTANCE.render(Component.empty(), node, serializer.getDefaultOptions(), child -> Component.empty());
+        }
+        Assertions.assertEquals(nodes, snapshot(message.getNodes(), new ArrayList<>()));
+    }
+
+    /**
+     * The nodes with copies of their styles and children, recursively.
+     */
+    private static List<Object> snapshot(List<Node<Object>> nodes, List<Object> snapshot) {
+        for (Node<Object> node : nodes) {
+            snapshot.add(node);
+            if (node instanceof StyleNode) {
+                snapshot.add(new ArrayList<>(((StyleNode<?, StyleNode.Style>) node).getStyles()));
+            }
+            List<Node<Object>> children = node.getChildren();
+            if (children != null) {
+                snapshot.add(new ArrayList<>(children));
+                snapshot(children, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    @Test
+    public void parsedMessageTest() {
+        String discordMessage = "**hey** <@123> ||secret||";
+        MinecraftSerializerOptions<Component> staffOptions = serializer.getDefaultOptions()
+                .addRenderer(new DefaultMinecraftRenderer() {
+                    @Override
+                    public @NotNull Component appendUserMention(@NotNull Component component, @NotNull String id) {
+                        return component.append(Component.text("user " + id));
+                    }
+                });
+
+        ParsedMessage message = serializer.parse(discordMessage);
+        Assertions.assertEquals(serializer.serialize(discordMessage), serializer.serialize(message));
+        Assertions.assertEquals(serializer.serialize(discordMessage, staffOptions), serializer.serialize(message, staffOptions));
+        Assertions.assertEquals(serializer.serialize(discordMessage), serializer.serialize(message));
+    }
+
+    @Test
+    public void incrementalParseTest() {
+        MinecraftSerializerOptions<Component> blocks = serializer.getDefaultOptions().withBlockParsingEnabled(true);
+        ParsedMessage previous = serializer.parse("**first** line\n```java\ncode\n```\n> quote\nlast *line*", blocks);
+        String edited = "**first** line\n```java\nmore code\n```\n> quote\nlast *line*";
+        ParsedMessage message = serializer.parse(previous, edited, blocks);
+
+        Assertions.assertEquals(serializer.serialize(edited), serializer.serialize(message));
+        Assertions.assertSame(previous.getNodes().get(0), message.getNodes().get(0));
+        Assertions.assertSame(
+                previous.getNodes().get(previous.getNodes().size() - 1),
+                message.getNodes().get(message.getNodes().size() - 1)
+        );
+    }
+
+    @Test
+    public void nodeKindsTest() {
+        MinecraftSerializerOptions<Component> options = serializer.getDefaultOptions()
+                .addRenderer(new MinecraftNodeRenderer() {
+                    @Override
+                    public Component render(@NotNull Component baseComponent,
+                                            @NotNull Node<Object> node,
+                                            @NotNull MinecraftSerializerOptions<Component> serializerOptions,
+                                            @NotNull Function<Node<Object>, Component> renderWithChildren) {
+                        Assertions.assertEquals(NodeKind.BOLD, NodeKind.of(node));
+                        return baseComponent.color(NamedTextColor.RED);
+                    }
+
+                    @Override
+                    public Set<NodeKind> getNodeKinds() {
+                        return EnumSet.of(NodeKind.BOLD);
+                    }
+                });
+
+        Assertions.assertEquals(
+                Component.empty()
+                        .append(Component.text("plain "))
+                        .append(Component.text("bold", NamedTextColor.RED)),
+                serializer.serialize("plain **bold**", options)
+        );
+    }
+
+    @Test
+    public void pipelineTest() {
+        MinecraftSerializerPipeline pipeline = serializer.getDefaultOptions().compile();
+        String discordMessage = "**bold** __underline__ ||spoiler|| `code`";
+        Component expected = serializer.serialize(discordMessage);
+
+        Assertions.assertEquals(expected, pipeline.serialize(discordMessage));
+        Assertions.assertEquals(expected, pipeline.serialize(pipeline.parse(discordMessage)));
+        Assertions.assertEquals(Component.text("plain"), pipeline.serialize("plain"));
+        IntStream.range(0, 64).parallel()
+                .forEach(i -> Assertions.assertEquals(expected, pipeline.serialize(discordMessage)));
+
+        MinecraftSerializerOptions<Component> blocks = serializer.getDefaultOptions().withBlockParsingEnabled(true);
+        String quote = "> quoted **bold**\ntext";
+        Assertions.assertEquals(serializer.serialize(quote, blocks), blocks.compile().serialize(quote));
+        Assertions.assertEquals(serializer.serialize(quote, blocks), blocks.compile().serialize(blocks.compile().parse(quote)));
+
+        MinecraftSerializerOptions<Component> notMinecraft = serializer.getDefaultOptions()
+                .addRenderer((renderTo, node, serializerOptions, renderWithChildren) -> null);
+        Assertions.assertThrows(IllegalStateException.class, notMinecraft::compile);
+    }
+
+    @Test
+    public void ruleFlagsTest() {
+        MinecraftSerializerOptions<Component> withoutSpoilers = MinecraftSerializerOptions.defaults()
+                .withRules(DiscordMarkdownRules.ALL_RULES & ~DiscordMarkdownRules.SPOILER);
+
+        Assertions.assertEquals(Component.text("||spoiler||"), serializer.serialize("||spoiler||", withoutSpoilers));
+        Assertions.assertSame(
+                withoutSpoilers.getRules(),
+                serializer.getDefaultOptions().withRules(DiscordMarkdownRules.ALL_RULES & ~DiscordMarkdownRules.SPOILER).getRules()
+        );
+
+        // Another parser can't lock the shared rules, so it gets rules of its own
+        MinecraftSerializerOptions<Component> ownParser = MinecraftSerializerOptions.defaults().withParser(new Parser<>());
+        Assertions.assertNotSame(MinecraftSerializerOptions.defaults().getRules(), ownParser.getRules());
+        Assertions.assertEquals(Component.text("bold").decorate(TextDecoration.BOLD), serializer.serialize("**bold**", ownParser));
+    }
+
+    @Test
+    public void plainMessageTest() {
+        // Rules that aren't shared always go through the parser
+        MinecraftSerializerOptions<Component> parsed = serializer.getDefaultOptions()
+                .withRules(DiscordMarkdownRules.createAllRulesForDiscord(true));
+
+        String plain = "Hey, it's 5 o'clock... (lunch?) #general";
+        Assertions.assertEquals(Component.text(plain), serializer.serialize(plain));
+        Assertions.assertEquals(serializer.serialize(plain, parsed), serializer.serialize(plain));
+        Assertions.assertEquals(serializer.serialize("", parsed), serializer.serialize(""));
+    }
+
+    @Test
+    public void jsonTest() throws IOException {
+        String[] messages = {
+                "Hello \"world\" <3 & =)",
+                "**bold** and *italics* and __underline__ and ~~strikethrough~~",
+                "***~~__everything__~~***",
+                "> quoted **bold**\n> second line\nafter the quote",
+                "||spoiler with *italics*|| after",
+                "> ||quoted\nspoiler||",
+                "`code` and **`bold code`**",
+                "```java\nSystem.out.println(\"Hello\");\n```",
+                "<@123456789> <#987654321> <@&111111111> <:emote:222222222>",
+                "check https://example.com **now**!",
+        };
+        GsonComponentSerializer gson = GsonComponentSerializer.gson();
+        MinecraftSerializerOptions<MinecraftJsonWriter> options = serializer.getDefaultOptions().withRenderers(Collections.emptyList());
+
+        for (String message : messages) {
+            String expected = gson.serialize(serializer.serialize(message));
+            Assertions.assertEquals(expected, serializer.serializeJson(message), message);
+
+            StringBuilder builder = new StringBuilder();
+            serializer.serializeJson(serializer.parse(message), options, builder);
+            Assertions.assertEquals(expected, builder.toString(), message);
+        }
+    }
+
+    @Test
+    public void legacyTest() {
+        Assertions.assertEquals("\u00A7lbold\u00A7r plain", serializer.serializeLegacy("**bold** plain"));
+        Assertions.assertEquals("\u00A7nunderline \u00A7lbold", serializer.serializeLegacy("__underline **bold**__"));
+        Assertions.assertEquals("\u00A78code\u00A7r <@123>", serializer.serializeLegacy("`code` <@123>"));
+        Assertions.assertEquals(
+                "\u00A78\u00A7l| \u00A7rquote\n\u00A78\u00A7l| \u00A7rline",
+                serializer.serializeLegacy("> quote\n> line")
+        );
+    }
+
+    @Test
+    public void plainTextTest() throws IOException {
+        Assertions.assertEquals("bold and spoiler <@123>", serializer.serializePlainText("**bold** and ||spoiler|| <@123>"));
+        Assertions.assertEquals("| quote\n| line", serializer.serializePlainText("> quote\n> line"));
+
+        MinecraftSerializerOptions<PlainTextWriter> options = serializer.getDefaultOptions()
+                .<PlainTextWriter>withRenderers(Collections.emptyList())
+                .addRenderer(new DefaultPlainTextRenderer() {
+                    @Override
+                    public void appendUserMention(@NotNull PlainTextWriter writer, @NotNull String id) {
+                        writer.text("@user");
+                    }
+                });
+        StringBuilder builder = new StringBuilder();
+        serializer.serializePlainText("hey <@123>", options, builder);
+        Assertions.assertEquals("hey @user", builder.toString());
+    }
 }